@@ -23,3 +23,20 @@ ALTER TABLE users ALTER COLUMN password SET NOT NULL;
 
 -- Add unique constraint on email if not exists
 ALTER TABLE users ADD CONSTRAINT users_email_unique UNIQUE (email);
+
+-- Food ids come from a pooled sequence (allocationSize = 50) so imports can batch inserts;
+-- create it with the same increment and start it past the ids already in the table
+CREATE SEQUENCE IF NOT EXISTS foods_seq INCREMENT BY 50;
+ALTER SEQUENCE foods_seq INCREMENT BY 50;
+SELECT setval('foods_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM foods), 1));
+
+-- Same for meal ids, so batch logging can use JDBC batching
+CREATE SEQUENCE IF NOT EXISTS meals_seq INCREMENT BY 50;
+ALTER SEQUENCE meals_seq INCREMENT BY 50;
+SELECT setval('meals_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM meals), 1));
+
+-- Days summarized before daily_nutrition_summary.calorie_target existed: stamp them with the
+-- user's current target, then restart the rollup backfill (--backfill-nutrition-rollups)
+UPDATE daily_nutrition_summary s SET calorie_target = COALESCE(u.daily_calorie_target, 2000)
+FROM users u
+WHERE u.id = s.user_id AND s.calorie_target IS NULL;
@@ -1,11 +1,16 @@
 package com.fitnessapp.fitness_api.controller;
 
+import com.fitnessapp.fitness_api.dto.AuthResponse;
 import com.fitnessapp.fitness_api.dto.LoginRequest;
+import com.fitnessapp.fitness_api.dto.RefreshRequest;
 import com.fitnessapp.fitness_api.dto.RegisterRequest;
 import com.fitnessapp.fitness_api.entity.User;
+import com.fitnessapp.fitness_api.exception.ServiceBusyException;
 import com.fitnessapp.fitness_api.service.AuthService;
+import com.fitnessapp.fitness_api.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -16,12 +21,15 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController {
 
     private final AuthService authService;
+    private final UserService userService;
 
     @PostMapping("/register")
     public ResponseEntity<?> register(@Valid @RequestBody RegisterRequest req) {
         try {
             User saved = authService.register(req);
-            return ResponseEntity.status(HttpStatus.CREATED).body(saved);
+            return ResponseEntity.status(HttpStatus.CREATED).body(userService.toProfile(saved));
+        } catch (ServiceBusyException e) {
+            return serviceBusy(e);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -32,8 +40,47 @@ public class AuthController {
         try {
             String token = authService.authenticate(req);
             return ResponseEntity.ok(token);
+        } catch (ServiceBusyException e) {
+            return serviceBusy(e);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
+
+    // Same as /login but returns { token, refreshToken, expiresIn }
+    @PostMapping("/token")
+    public ResponseEntity<?> token(@Valid @RequestBody LoginRequest req) {
+        try {
+            AuthResponse tokens = authService.login(req);
+            return ResponseEntity.ok(tokens);
+        } catch (ServiceBusyException e) {
+            return serviceBusy(e);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@Valid @RequestBody RefreshRequest req) {
+        try {
+            AuthResponse tokens = authService.refresh(req.getRefreshToken());
+            return ResponseEntity.ok(tokens);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(e.getMessage());
+        }
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestBody(required = false) RefreshRequest req,
+                                       @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String header) {
+        String accessToken = (header != null && header.startsWith("Bearer ")) ? header.substring(7) : null;
+        authService.logout(req != null ? req.getRefreshToken() : null, accessToken);
+        return ResponseEntity.noContent().build();
+    }
+
+    private ResponseEntity<String> serviceBusy(ServiceBusyException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(e.getMessage());
+    }
 }
@@ -1,13 +1,25 @@
 package com.fitnessapp.fitness_api.controller;
 
 import com.fitnessapp.fitness_api.dto.FoodDto;
+import com.fitnessapp.fitness_api.dto.FoodFilterRequest;
+import com.fitnessapp.fitness_api.dto.FoodImportResult;
+import com.fitnessapp.fitness_api.dto.FoodPageDto;
 import com.fitnessapp.fitness_api.entity.FoodCategory;
 import com.fitnessapp.fitness_api.entity.GoalType;
+import com.fitnessapp.fitness_api.entity.User;
+import com.fitnessapp.fitness_api.security.CurrentUser;
+import com.fitnessapp.fitness_api.service.FoodFilterService;
+import com.fitnessapp.fitness_api.service.FoodImportService;
+import com.fitnessapp.fitness_api.service.FoodRecommendationEngine;
+import com.fitnessapp.fitness_api.service.FoodSearchIndex;
 import com.fitnessapp.fitness_api.service.FoodService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -16,41 +28,62 @@ import java.util.List;
 public class FoodController {
 
     private final FoodService foodService;
+    private final FoodResponseCache foodResponseCache;
+    private final FoodImportService foodImportService;
+    private final FoodRecommendationEngine foodRecommendationEngine;
+    private final FoodFilterService foodFilterService;
 
     @GetMapping
-    public ResponseEntity<List<FoodDto>> getAllFoods() {
-        List<FoodDto> foods = foodService.getAllFoods();
-        return ResponseEntity.ok(foods);
+    public ResponseEntity<byte[]> getAllFoods(HttpServletRequest request) {
+        return foodResponseCache.respond("all", foodService::getAllFoods, request);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<FoodDto>> searchFoods(@RequestParam String name) {
-        List<FoodDto> foods = foodService.searchFoods(name);
+    public ResponseEntity<List<FoodDto>> searchFoods(@RequestParam String name,
+                                                     @RequestParam(defaultValue = "CONTAINS") FoodSearchIndex.Mode mode,
+                                                     @RequestParam(defaultValue = "50") int limit) {
+        List<FoodDto> foods = foodService.searchFoods(name, mode, Math.min(limit, 500));
         return ResponseEntity.ok(foods);
     }
 
+    // e.g. /filter?minProtein=20&maxCalories=150&categories=PROTEIN,DAIRY&sort=protein&direction=desc
+    @GetMapping("/filter")
+    public ResponseEntity<FoodPageDto> filterFoods(FoodFilterRequest request) {
+        return ResponseEntity.ok(foodFilterService.filter(request));
+    }
+
     @GetMapping("/category/{category}")
-    public ResponseEntity<List<FoodDto>> getFoodsByCategory(@PathVariable FoodCategory category) {
-        List<FoodDto> foods = foodService.getFoodsByCategory(category);
-        return ResponseEntity.ok(foods);
+    public ResponseEntity<byte[]> getFoodsByCategory(@PathVariable FoodCategory category,
+                                                     HttpServletRequest request) {
+        return foodResponseCache.respond("category-" + category,
+                () -> foodService.getFoodsByCategory(category), request);
     }
 
     @GetMapping("/recommendations")
-    public ResponseEntity<List<FoodDto>> getRecommendedFoods(@RequestParam GoalType goalType) {
-        List<FoodDto> foods = foodService.getRecommendedFoods(goalType);
+    public ResponseEntity<byte[]> getRecommendedFoods(@RequestParam GoalType goalType,
+                                                      HttpServletRequest request) {
+        return foodResponseCache.respond("recommendations-" + goalType,
+                () -> foodService.getRecommendedFoods(goalType), request);
+    }
+
+    // Ranked against what the logged-in user still needs today (requires a token)
+    @GetMapping("/recommendations/me")
+    public ResponseEntity<List<FoodDto>> getPersonalRecommendations(@RequestParam(required = false) String date,
+                                                                    @RequestParam(defaultValue = "20") int limit,
+                                                                    @CurrentUser User user) {
+        LocalDate target = (date != null) ? LocalDate.parse(date) : LocalDate.now();
+        List<FoodDto> foods = foodRecommendationEngine.recommend(user, target, Math.min(limit, 200));
         return ResponseEntity.ok(foods);
     }
 
     @GetMapping("/high-protein")
-    public ResponseEntity<List<FoodDto>> getHighProteinFoods() {
-        List<FoodDto> foods = foodService.getHighProteinFoods();
-        return ResponseEntity.ok(foods);
+    public ResponseEntity<byte[]> getHighProteinFoods(HttpServletRequest request) {
+        return foodResponseCache.respond("high-protein", foodService::getHighProteinFoods, request);
     }
 
     @GetMapping("/low-calorie")
-    public ResponseEntity<List<FoodDto>> getLowCalorieFoods() {
-        List<FoodDto> foods = foodService.getLowCalorieFoods();
-        return ResponseEntity.ok(foods);
+    public ResponseEntity<byte[]> getLowCalorieFoods(HttpServletRequest request) {
+        return foodResponseCache.respond("low-calorie", foodService::getLowCalorieFoods, request);
     }
 
     @GetMapping("/{id}")
@@ -68,6 +101,14 @@ public class FoodController {
         return ResponseEntity.ok(createdFood);
     }
 
+    // Streams the request body; send text/csv (with header row) or application/x-ndjson
+    @PostMapping("/import")
+    public ResponseEntity<FoodImportResult> importFoods(@RequestParam(defaultValue = "CSV") FoodImportService.Format format,
+                                                        HttpServletRequest request) throws IOException {
+        FoodImportResult result = foodImportService.importFoods(request.getInputStream(), format);
+        return ResponseEntity.ok(result);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<FoodDto> updateFood(@PathVariable Long id, @RequestBody FoodDto foodDto) {
         FoodDto updatedFood = foodService.updateFood(id, foodDto);
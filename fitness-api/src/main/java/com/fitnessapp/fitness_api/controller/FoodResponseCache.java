@@ -0,0 +1,127 @@
+package com.fitnessapp.fitness_api.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fitnessapp.fitness_api.service.FoodService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Pre-serialized JSON (plain and gzip) for the food list endpoints.
+ * Entries are tagged with the catalog version they were built from; any FoodService
+ * write bumps the version, so the next request rebuilds the entry. The ETag combines
+ * a per-process epoch with that version, which lets clients revalidate with If-None-Match.
+ * The gzip and identity bodies are different representations, so each has its own ETag.
+ */
+@Component
+@RequiredArgsConstructor
+public class FoodResponseCache {
+
+    private final ObjectMapper objectMapper;
+    private final FoodService foodService;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    public ResponseEntity<byte[]> respond(String key, Supplier<?> body, HttpServletRequest request) {
+        Entry entry = entry(key, body);
+        boolean gzip = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        String etag = gzip ? entry.gzipEtag() : entry.etag();
+
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .contentLength(entry.gzip().length)
+                    .body(entry.gzip());
+        }
+        return response.contentLength(entry.json().length).body(entry.json());
+    }
+
+    private Entry entry(String key, Supplier<?> body) {
+        // Read once, before the body: if a write lands while it is built, the entry is tagged
+        // older than its content and is rebuilt next time, never the other way round
+        long version = foodService.getCatalogVersion();
+        Entry cached = entries.get(key);
+        if (cached != null && cached.version() == version) {
+            return cached;
+        }
+
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(body.get());
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        String tag = epoch + "-" + version + "-" + key;
+        Entry built = new Entry(version, "\"" + tag + "\"", "\"" + tag + "-gz\"", json, gzip(json));
+        // A slower builder of an older version must not replace a newer entry
+        entries.merge(key, built, (current, candidate) -> candidate.version() >= current.version() ? candidate : current);
+        return built;
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            // If-None-Match uses weak comparison, so a W/ added by a proxy still matches
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String part : acceptEncoding.split(",")) {
+            String[] coding = part.trim().split(";");
+            if (coding[0].trim().equalsIgnoreCase("gzip")) {
+                return coding.length < 2 || !coding[1].replace(" ", "").equals("q=0");
+            }
+        }
+        return false;
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private record Entry(long version, String etag, String gzipEtag, byte[] json, byte[] gzip) {
+    }
+}
@@ -1,17 +1,17 @@
 package com.fitnessapp.fitness_api.controller;
 
+import com.fitnessapp.fitness_api.dto.GoalDto;
 import com.fitnessapp.fitness_api.dto.GoalRequest;
 import com.fitnessapp.fitness_api.entity.Goal;
 import com.fitnessapp.fitness_api.entity.User;
 import com.fitnessapp.fitness_api.repository.GoalRepository;
-import com.fitnessapp.fitness_api.repository.UserRepository;
+import com.fitnessapp.fitness_api.security.CurrentUser;
 import com.fitnessapp.fitness_api.service.GoalService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.security.Principal;
 import java.util.List;
 @RestController
 @RequestMapping("/api/goals")
@@ -19,14 +19,9 @@ import java.util.List;
 public class GoalController {
 
     private final GoalRepository goalRepository;
-    private final UserRepository userRepository;
 
     @PostMapping("/add")
-    public ResponseEntity<Goal> addGoal(@RequestBody GoalRequest request, Principal principal) {
-        // get logged-in user
-        User user = userRepository.findByEmail(principal.getName())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
+    public ResponseEntity<GoalDto> addGoal(@RequestBody GoalRequest request, @CurrentUser User user) {
         Goal goal = Goal.builder()
                 .description(request.getDescription())
                 .targetWeight(request.getTargetWeight())
@@ -36,22 +31,27 @@ public class GoalController {
                 .build();
 
         goalRepository.save(goal);
-        return ResponseEntity.status(HttpStatus.CREATED).body(goal);
+        GoalDto body = GoalDto.builder()
+                .id(goal.getId())
+                .description(goal.getDescription())
+                .targetWeight(goal.getTargetWeight())
+                .targetDate(goal.getTargetDate())
+                .type(goal.getType())
+                .userId(user.getId())
+                .build();
+        return ResponseEntity.status(HttpStatus.CREATED).body(body);
     }
 
     @GetMapping
-    public ResponseEntity<List<Goal>> getMyGoals(Principal principal) {
-        User user = userRepository.findByEmail(principal.getName())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        List<Goal> goals = goalRepository.findByUser(user);
+    public ResponseEntity<List<GoalDto>> getMyGoals(@CurrentUser User user) {
+        List<GoalDto> goals = goalRepository.findDtosByUserId(user.getId());
         return ResponseEntity.ok(goals);
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteMyGoal(@PathVariable Long id, Principal principal) {
-        User user = userRepository.findByEmail(principal.getName())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public ResponseEntity<Void> deleteMyGoal(@PathVariable Long id, @CurrentUser User user) {
         Goal goal = goalRepository.findById(id).orElse(null);
+        // getId() on the lazy owner proxy does not load the user row
         if (goal == null || goal.getUser() == null || !goal.getUser().getId().equals(user.getId())) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
@@ -1,16 +1,32 @@
 package com.fitnessapp.fitness_api.controller;
 
 import com.fitnessapp.fitness_api.dto.MealRequest;
+import com.fitnessapp.fitness_api.dto.MealBatchResponse;
 import com.fitnessapp.fitness_api.dto.MealDto;
+import com.fitnessapp.fitness_api.dto.MealHistoryRequest;
+import com.fitnessapp.fitness_api.dto.MealPageDto;
 import com.fitnessapp.fitness_api.dto.DailyNutritionDto;
+import com.fitnessapp.fitness_api.dto.FoodDto;
+import com.fitnessapp.fitness_api.dto.MealPlanDto;
+import com.fitnessapp.fitness_api.dto.NutritionPeriodDto;
+import com.fitnessapp.fitness_api.entity.MealType;
 import com.fitnessapp.fitness_api.entity.User;
-import com.fitnessapp.fitness_api.repository.UserRepository;
+import com.fitnessapp.fitness_api.security.CurrentUser;
+import com.fitnessapp.fitness_api.exception.ServiceBusyException;
+import com.fitnessapp.fitness_api.service.MealExportService;
+import com.fitnessapp.fitness_api.service.MealHistoryService;
+import com.fitnessapp.fitness_api.service.MealPlanService;
 import com.fitnessapp.fitness_api.service.MealService;
+import com.fitnessapp.fitness_api.service.NutritionRollupService;
+import com.fitnessapp.fitness_api.service.QuickAddService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.security.Principal;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -20,61 +36,168 @@ import java.util.List;
 public class MealController {
 
     private final MealService mealService;
-    private final UserRepository userRepository;
+    private final MealPlanService mealPlanService;
+    private final MealHistoryService mealHistoryService;
+    private final MealExportService mealExportService;
+    private final QuickAddService quickAddService;
+    private final NutritionRollupService nutritionRollupService;
 
     @PostMapping("/add")
-    public ResponseEntity<String> addMeal(@RequestBody MealRequest request, Principal principal) {
-        User user = userRepository.findByEmail(principal.getName())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public ResponseEntity<String> addMeal(@RequestBody MealRequest request, @CurrentUser User user) {
+        try {
+            String message = mealService.isWriteBehindEnabled()
+                    ? mealService.queueMeal(user, request)
+                    : mealService.addMeal(user, request);
+            return ResponseEntity.ok(message);
+        } catch (ServiceBusyException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(e.getMessage());
+        }
+    }
 
-        String message = mealService.addMeal(user, request);
-        return ResponseEntity.ok(message);
+    // Offline sync: many meals in one transaction, with a result per item
+    @PostMapping("/batch")
+    public ResponseEntity<?> addMeals(@RequestBody List<MealRequest> requests, @CurrentUser User user) {
+        try {
+            MealBatchResponse response = mealService.addMeals(user, requests);
+            return ResponseEntity.ok(response);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @GetMapping
     public ResponseEntity<List<MealDto>> getMealsForDate(@RequestParam(required = false) String date,
-                                                         Principal principal) {
-        User user = userRepository.findByEmail(principal.getName())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+                                                         @CurrentUser User user) {
         LocalDate target = (date != null) ? LocalDate.parse(date) : LocalDate.now();
         List<MealDto> meals = mealService.getMealsForDate(user, target);
         return ResponseEntity.ok(meals);
     }
     
+    // The user's most used foods, weighted towards recent use
+    @GetMapping("/quick-add")
+    public ResponseEntity<List<FoodDto>> getQuickAddFoods(@RequestParam(defaultValue = "10") int limit,
+                                                          @CurrentUser User user) {
+        List<FoodDto> foods = quickAddService.quickAdd(user.getId(), Math.max(1, Math.min(limit, 20)));
+        return ResponseEntity.ok(foods);
+    }
+    
     @GetMapping("/all")
-    public ResponseEntity<List<MealDto>> getAllMeals(Principal principal) {
-        User user = userRepository.findByEmail(principal.getName())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public ResponseEntity<List<MealDto>> getAllMeals(@CurrentUser User user) {
         List<MealDto> meals = mealService.getMealsForUser(user);
         return ResponseEntity.ok(meals);
     }
     
+    // Newest first; pass nextCursor back as cursor for the next page
+    @GetMapping("/history")
+    public ResponseEntity<?> getMealHistory(MealHistoryRequest request, @CurrentUser User user) {
+        try {
+            MealPageDto page = mealHistoryService.history(user, request);
+            return ResponseEntity.ok(page);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    // Full history as a download; gzip=true sends a .gz file
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportMeals(@RequestParam(defaultValue = "CSV") MealExportService.Format format,
+                                                             @RequestParam(defaultValue = "false") boolean gzip,
+                                                             @CurrentUser User user) {
+        Long userId = user.getId();
+        String filename = "meals." + format.name().toLowerCase() + (gzip ? ".gz" : "");
+        MediaType type = gzip ? MediaType.parseMediaType("application/gzip")
+                : format == MealExportService.Format.CSV ? MediaType.parseMediaType("text/csv")
+                : MediaType.parseMediaType("application/x-ndjson");
+        StreamingResponseBody body = out -> mealExportService.export(userId, format, gzip, out);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .contentType(type)
+                .body(body);
+    }
+    
     @GetMapping("/nutrition")
     public ResponseEntity<DailyNutritionDto> getDailyNutrition(@RequestParam(required = false) String date,
-                                                              Principal principal) {
-        User user = userRepository.findByEmail(principal.getName())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+                                                              @CurrentUser User user) {
         LocalDate target = (date != null) ? LocalDate.parse(date) : LocalDate.now();
         DailyNutritionDto nutrition = mealService.getDailyNutrition(user, target);
         return ResponseEntity.ok(nutrition);
     }
     
+    // Whole series in one call, e.g. /nutrition/range?from=2025-01-01&to=2025-01-07&breakdown=true
+    @GetMapping("/nutrition/range")
+    public ResponseEntity<?> getNutritionRange(@RequestParam String from,
+                                               @RequestParam String to,
+                                               @RequestParam(defaultValue = "false") boolean breakdown,
+                                               @CurrentUser User user) {
+        try {
+            List<DailyNutritionDto> series = mealService.getNutritionRange(
+                    user, LocalDate.parse(from), LocalDate.parse(to), breakdown);
+            return ResponseEntity.ok(series);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    // ISO weeks overlapping the range; defaults to the last 12 weeks
+    @GetMapping("/stats/weekly")
+    public ResponseEntity<?> getWeeklyStats(@RequestParam(required = false) String from,
+                                            @RequestParam(required = false) String to,
+                                            @CurrentUser User user) {
+        try {
+            LocalDate end = (to != null) ? LocalDate.parse(to) : LocalDate.now();
+            LocalDate start = (from != null) ? LocalDate.parse(from) : end.minusWeeks(11);
+            List<NutritionPeriodDto> weeks = nutritionRollupService.weekly(user, start, end);
+            return ResponseEntity.ok(weeks);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    // Calendar months overlapping the range; defaults to the last 12 months
+    @GetMapping("/stats/monthly")
+    public ResponseEntity<?> getMonthlyStats(@RequestParam(required = false) String from,
+                                             @RequestParam(required = false) String to,
+                                             @CurrentUser User user) {
+        try {
+            LocalDate end = (to != null) ? LocalDate.parse(to) : LocalDate.now();
+            LocalDate start = (from != null) ? LocalDate.parse(from) : end.minusMonths(11);
+            List<NutritionPeriodDto> months = nutritionRollupService.monthly(user, start, end);
+            return ResponseEntity.ok(months);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    // One-day plan for the user's calorie target and goal; slots default to all meal types
+    @GetMapping("/plan")
+    public ResponseEntity<?> getMealPlan(@RequestParam(required = false) List<MealType> slots,
+                                         @RequestParam(defaultValue = "0.05") double tolerance,
+                                         @CurrentUser User user) {
+        try {
+            MealPlanDto plan = mealPlanService.plan(user, slots, tolerance);
+            return ResponseEntity.ok(plan);
+        } catch (ServiceBusyException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(e.getMessage());
+        } catch (RuntimeException e) {
+            // Bad tolerance, or no foods in the catalog to plan with
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
     @PutMapping("/{id}")
     public ResponseEntity<String> updateMeal(@PathVariable Long id, 
                                            @RequestBody MealRequest request, 
-                                           Principal principal) {
-        User user = userRepository.findByEmail(principal.getName())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        
+                                           @CurrentUser User user) {
         String message = mealService.updateMeal(id, request, user);
         return ResponseEntity.ok(message);
     }
     
     @DeleteMapping("/{id}")
-    public ResponseEntity<String> deleteMeal(@PathVariable Long id, Principal principal) {
-        User user = userRepository.findByEmail(principal.getName())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        
+    public ResponseEntity<String> deleteMeal(@PathVariable Long id, @CurrentUser User user) {
         String message = mealService.deleteMeal(id, user);
         return ResponseEntity.ok(message);
     }
@@ -1,34 +1,51 @@
 package com.fitnessapp.fitness_api.controller;
 
+import com.fitnessapp.fitness_api.entity.AccountDeletion;
 import com.fitnessapp.fitness_api.entity.User;
+import com.fitnessapp.fitness_api.dto.BatchJobStatusDto;
+import com.fitnessapp.fitness_api.dto.ErrorDto;
 import com.fitnessapp.fitness_api.dto.UserDto;
+import com.fitnessapp.fitness_api.dto.UserPageDto;
+import com.fitnessapp.fitness_api.dto.UserProfileDto;
+import com.fitnessapp.fitness_api.security.CurrentUser;
+import com.fitnessapp.fitness_api.service.CalorieTargetRecompute;
 import com.fitnessapp.fitness_api.service.UserService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.security.Principal;
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/users")
 @RequiredArgsConstructor
 public class UserController {
 
     private final UserService userService;
+    private final CalorieTargetRecompute calorieTargetRecompute;
 
-    // Get all users
+    // Admin only: page through all users by id, ?size=50&cursor=<nextCursor of the previous page>
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
-        List<User> users = userService.getAllUsers();
-        return ResponseEntity.ok(users);
+    public ResponseEntity<?> getAllUsers(@RequestParam(required = false) String cursor,
+                                         @RequestParam(defaultValue = "50") int size,
+                                         @CurrentUser User user) {
+        if (!calorieTargetRecompute.isAdmin(user)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        try {
+            UserPageDto page = userService.getUsers(cursor, size);
+            return ResponseEntity.ok(page);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(ErrorDto.builder()
+                    .error("invalid_cursor")
+                    .message("cursor must be the nextCursor of a previous page")
+                    .build());
+        }
     }
 
     // Get a user by ID
     @GetMapping("/{id}")
-    public ResponseEntity<User> getUserById(@PathVariable Long id) {
-        User user = userService.getUserById(id);
+    public ResponseEntity<UserProfileDto> getUserById(@PathVariable Long id) {
+        UserProfileDto user = userService.getProfile(id);
         if (user == null) {
             return ResponseEntity.notFound().build();
         }
@@ -37,59 +54,79 @@ public class UserController {
 
     // Create a new user (optional, usually registration is via AuthController)
     @PostMapping
-    public ResponseEntity<User> createUser(@RequestBody User user) {
+    public ResponseEntity<UserProfileDto> createUser(@RequestBody User user) {
         User createdUser = userService.createUser(user);
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdUser);
+        return ResponseEntity.status(HttpStatus.CREATED).body(userService.toProfile(createdUser));
     }
 
     // Update an existing user
     @PutMapping("/{id}")
-    public ResponseEntity<User> updateUser(@PathVariable Long id, @RequestBody User updatedUser) {
+    public ResponseEntity<UserProfileDto> updateUser(@PathVariable Long id, @RequestBody User updatedUser) {
         User user = userService.updateUser(id, updatedUser);
         if (user == null) {
             return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.ok(user);
+        return ResponseEntity.ok(userService.toProfile(user));
     }
 
-    // Delete a user
+    // Delete a user: disabled at once, data removed by a background job (202 with its progress)
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteUser(@PathVariable Long id) {
-        userService.deleteUser(id);
-        return ResponseEntity.noContent().build();
+    public ResponseEntity<?> deleteUser(@PathVariable Long id) {
+        try {
+            AccountDeletion deletion = userService.deleteUser(id);
+            return ResponseEntity.accepted().body(deletion);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/{id}/deletion")
+    public ResponseEntity<AccountDeletion> getDeletionProgress(@PathVariable Long id) {
+        AccountDeletion deletion = userService.getDeletionProgress(id);
+        if (deletion == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(deletion);
     }
 
     // Optional: Get the logged-in user (requires JWT auth)
     @GetMapping("/me")
-    public ResponseEntity<User> getLoggedInUser(Principal principal) {
-        User user = userService.getUserByEmail(principal.getName());
-        if (user == null) {
-            return ResponseEntity.notFound().build();
+    public ResponseEntity<UserProfileDto> getLoggedInUser(@CurrentUser User user) {
+        return ResponseEntity.ok(userService.toProfile(user));
+    }
+
+    // Only the fields present in the body change; PUT is kept for existing clients
+    @PatchMapping("/me/profile")
+    public ResponseEntity<?> patchMyProfile(@RequestBody UserDto dto, @CurrentUser User user) {
+        try {
+            return ResponseEntity.ok(userService.patchProfile(user, dto));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         }
-        // Ensure password is not exposed
-        user.setPassword(null);
-        return ResponseEntity.ok(user);
     }
 
     @PutMapping("/me/profile")
-    public ResponseEntity<User> updateMyProfile(@RequestBody UserDto dto, Principal principal) {
-        User user = userService.getUserByEmail(principal.getName());
-        if (user == null) {
-            return ResponseEntity.notFound().build();
-        }
-        user.setName(dto.getName());
-        user.setAge(dto.getAge());
-        user.setWeight(dto.getWeight());
-        user.setHeight(dto.getHeight());
-        user.setGender(dto.getGender());
-        user.setActivityLevel(dto.getActivityLevel());
-        user.setGoal(dto.getGoal());
+    public ResponseEntity<?> updateMyProfile(@RequestBody UserDto dto, @CurrentUser User user) {
+        return patchMyProfile(dto, user);
+    }
 
-        int dailyCalories = userService.calculateDailyCalories(user);
-        user.setDailyCalorieTarget(dailyCalories);
+    // Admin only: recompute every stored calorie target with the current formula
+    @PostMapping("/admin/calorie-targets/recompute")
+    public ResponseEntity<BatchJobStatusDto> recomputeCalorieTargets(@RequestParam(defaultValue = "false") boolean restart,
+                                                                     @CurrentUser User user) {
+        if (!calorieTargetRecompute.isAdmin(user)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        boolean started = calorieTargetRecompute.start(restart);
+        return ResponseEntity.status(started ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT)
+                .body(calorieTargetRecompute.status());
+    }
 
-        User saved = userService.createUser(user); // save
-        saved.setPassword(null);
-        return ResponseEntity.ok(saved);
+    @GetMapping("/admin/calorie-targets/recompute")
+    public ResponseEntity<BatchJobStatusDto> getCalorieTargetRecompute(@CurrentUser User user) {
+        if (!calorieTargetRecompute.isAdmin(user)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(calorieTargetRecompute.status());
     }
 }
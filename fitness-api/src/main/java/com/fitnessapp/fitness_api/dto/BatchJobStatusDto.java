@@ -0,0 +1,21 @@
+package com.fitnessapp.fitness_api.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchJobStatusDto {
+    private String job;
+    private boolean running;
+    private long lastId;    // resume point
+    private long processed; // rows read since the run started (including resumed runs)
+    private long updated;   // rows whose value actually changed
+    private double rowsPerSecond;
+    private String lastError;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+}
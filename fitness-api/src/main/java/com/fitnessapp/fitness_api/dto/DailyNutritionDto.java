@@ -1,8 +1,11 @@
 package com.fitnessapp.fitness_api.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fitnessapp.fitness_api.entity.MealType;
 import lombok.*;
 
 import java.time.LocalDate;
+import java.util.Map;
 
 @Data
 @NoArgsConstructor
@@ -18,4 +21,9 @@ public class DailyNutritionDto {
     private Double targetCalories;
     private Double remainingCalories;
     private Double calorieProgress; // percentage
+    private Integer mealCount;
+
+    // Only filled in by /nutrition/range?breakdown=true
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Map<MealType, MealTypeNutritionDto> byMealType;
 }
@@ -0,0 +1,12 @@
+package com.fitnessapp.fitness_api.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ErrorDto {
+    private String error;     // stable code clients can switch on
+    private String message;   // human readable; never echoes request input
+}
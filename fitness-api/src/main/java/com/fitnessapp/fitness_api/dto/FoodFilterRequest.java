@@ -0,0 +1,26 @@
+package com.fitnessapp.fitness_api.dto;
+
+import com.fitnessapp.fitness_api.entity.FoodCategory;
+import lombok.Data;
+
+import java.util.List;
+
+// Query parameters of GET /api/foods/filter; every bound is optional and inclusive (per 100g)
+@Data
+public class FoodFilterRequest {
+    private Double minCalories;
+    private Double maxCalories;
+    private Double minProtein;
+    private Double maxProtein;
+    private Double minCarbs;
+    private Double maxCarbs;
+    private Double minFat;
+    private Double maxFat;
+    private Double minFiber;
+    private Double maxFiber;
+    private List<FoodCategory> categories;
+    private String sort = "id";        // id, calories, protein, carbs, fat or fiber
+    private String direction = "asc";  // asc or desc
+    private int page = 0;
+    private int size = 50;
+}
@@ -0,0 +1,19 @@
+package com.fitnessapp.fitness_api.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FoodImportResult {
+    private long rowsRead;
+    private long inserted;
+    private long duplicates;
+    private long invalid;
+    private long elapsedMs;
+    private double rowsPerSecond;
+    private List<String> errors; // first few validation errors, with line numbers
+}
@@ -0,0 +1,16 @@
+package com.fitnessapp.fitness_api.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FoodPageDto {
+    private List<FoodDto> content;
+    private long totalElements;
+    private int page;
+    private int size;
+}
@@ -0,0 +1,19 @@
+package com.fitnessapp.fitness_api.dto;
+
+import com.fitnessapp.fitness_api.entity.GoalType;
+import lombok.*;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GoalDto {
+    private Long id;
+    private String description;
+    private double targetWeight;
+    private LocalDate targetDate;
+    private GoalType type;
+    private Long userId;
+}
@@ -0,0 +1,15 @@
+package com.fitnessapp.fitness_api.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MealBatchItemResult {
+    private int index;        // position in the request array
+    private boolean created;
+    private Long mealId;
+    private Double calories;
+    private String error;     // why the item was rejected
+}
@@ -0,0 +1,15 @@
+package com.fitnessapp.fitness_api.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MealBatchResponse {
+    private int created;
+    private int rejected;
+    private List<MealBatchItemResult> results;
+}
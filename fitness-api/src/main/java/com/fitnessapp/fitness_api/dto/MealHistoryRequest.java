@@ -0,0 +1,22 @@
+package com.fitnessapp.fitness_api.dto;
+
+import com.fitnessapp.fitness_api.entity.MealType;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+// Query parameters of GET /api/meals/history; every filter is optional and inclusive
+@Data
+public class MealHistoryRequest {
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+    private MealType mealType;
+    private Long foodId;
+    private Double minCalories;
+    private Double maxCalories;
+    private String cursor;  // nextCursor of the previous page
+    private Integer size;
+}
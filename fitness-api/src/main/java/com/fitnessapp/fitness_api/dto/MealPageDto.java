@@ -0,0 +1,15 @@
+package com.fitnessapp.fitness_api.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MealPageDto {
+    private List<MealDto> content;
+    private String nextCursor; // null on the last page
+    private boolean hasMore;
+}
@@ -0,0 +1,24 @@
+package com.fitnessapp.fitness_api.dto;
+
+import com.fitnessapp.fitness_api.entity.GoalType;
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MealPlanDto {
+    private Double targetCalories;
+    private Double targetProtein;
+    private Double targetCarbs;
+    private Double targetFat;
+    private GoalType goal;
+    private Double totalCalories;
+    private Double totalProtein;
+    private Double totalCarbs;
+    private Double totalFat;
+    private Boolean withinTolerance; // every daily total within the requested tolerance
+    private List<MealPlanItemDto> items;
+}
@@ -0,0 +1,19 @@
+package com.fitnessapp.fitness_api.dto;
+
+import com.fitnessapp.fitness_api.entity.MealType;
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MealPlanItemDto {
+    private MealType mealType;
+    private Long foodId;
+    private String foodName;
+    private Double quantity; // in grams
+    private Double calories;
+    private Double protein;
+    private Double carbs;
+    private Double fat;
+}
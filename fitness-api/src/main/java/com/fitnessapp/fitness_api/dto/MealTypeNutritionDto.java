@@ -0,0 +1,16 @@
+package com.fitnessapp.fitness_api.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MealTypeNutritionDto {
+    private Double calories;
+    private Double protein;
+    private Double carbs;
+    private Double fat;
+    private Double fiber;
+    private Integer mealCount;
+}
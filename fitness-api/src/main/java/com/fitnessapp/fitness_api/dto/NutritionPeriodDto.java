@@ -0,0 +1,24 @@
+package com.fitnessapp.fitness_api.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NutritionPeriodDto {
+    private LocalDate periodStart;
+    private LocalDate periodEnd;
+    private Double totalCalories;
+    private Double totalProtein;
+    private Double totalCarbs;
+    private Double totalFat;
+    private Double totalFiber;
+    private Integer mealCount;
+    private Integer daysLogged;
+    private Integer daysOverTarget;
+    private Double averageCalories; // per logged day
+    private Double targetCalories;  // current daily target times days in the period
+}
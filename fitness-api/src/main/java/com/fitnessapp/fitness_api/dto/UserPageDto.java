@@ -0,0 +1,15 @@
+package com.fitnessapp.fitness_api.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserPageDto {
+    private List<UserProfileDto> content;
+    private String nextCursor; // null on the last page
+    private boolean hasMore;
+}
@@ -0,0 +1,25 @@
+package com.fitnessapp.fitness_api.dto;
+
+import com.fitnessapp.fitness_api.entity.ActivityLevel;
+import com.fitnessapp.fitness_api.entity.Gender;
+import com.fitnessapp.fitness_api.entity.GoalType;
+import lombok.*;
+
+// What clients see of a user: profile columns only, never meals, goals or the password
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserProfileDto {
+    private Long id;
+    private String name;
+    private String username;
+    private String email;
+    private Integer age;
+    private Double weight;
+    private Double height;
+    private Gender gender;
+    private ActivityLevel activityLevel;
+    private GoalType goal;
+    private Integer dailyCalorieTarget;
+}
@@ -0,0 +1,33 @@
+package com.fitnessapp.fitness_api.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Progress of one background account deletion; outlives the user row as a record that it happened
+@Entity
+@Table(name = "account_deletions")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccountDeletion {
+
+    @Id
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private AccountDeletionStatus status;
+
+    private long mealsDeleted;
+    private long goalsDeleted;
+
+    @Column(length = 500)
+    private String lastError;
+
+    private LocalDateTime requestedAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime completedAt;
+}
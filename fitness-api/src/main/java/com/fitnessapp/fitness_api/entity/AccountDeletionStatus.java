@@ -0,0 +1,7 @@
+package com.fitnessapp.fitness_api.entity;
+
+public enum AccountDeletionStatus {
+    PENDING,   // user disabled, data not yet (fully) deleted
+    COMPLETED, // user row deleted
+    FAILED     // stopped on an error; retried on the next request or restart
+}
@@ -0,0 +1,31 @@
+package com.fitnessapp.fitness_api.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Resume point of a keyset-ordered batch job: every row with id <= lastId has been processed
+@Entity
+@Table(name = "batch_job_checkpoints")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchJobCheckpoint {
+
+    @Id
+    @Column(length = 100)
+    private String job;
+
+    private long lastId;
+    private long processed;
+    private long updated;
+
+    @Column(length = 500)
+    private String lastError;
+
+    private LocalDateTime startedAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime completedAt; // null while running, failed or interrupted
+}
@@ -0,0 +1,27 @@
+package com.fitnessapp.fitness_api.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// Running totals of a user's meals for one day, kept in step by MealService writes
+@Entity
+@Table(name = "daily_nutrition_summary")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DailyNutritionSummary {
+
+    @EmbeddedId
+    private DailyNutritionSummaryId id;
+
+    private double calories;
+    private double protein;
+    private double carbs;
+    private double fat;
+    private double fiber;
+    private int mealCount;
+
+    // Target the day is judged against for days over target; restamped whenever the user's target changes
+    private Double calorieTarget;
+}
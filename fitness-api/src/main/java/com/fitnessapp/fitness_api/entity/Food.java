@@ -11,8 +11,10 @@ import lombok.*;
 @Builder
 public class Food {
     
+    // Sequence with a pooled optimizer so Hibernate can batch inserts (IDENTITY cannot)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "foods_seq")
+    @SequenceGenerator(name = "foods_seq", sequenceName = "foods_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false, unique = true)
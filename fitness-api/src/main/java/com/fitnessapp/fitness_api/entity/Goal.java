@@ -24,7 +24,9 @@ public class Goal {
     @Enumerated(EnumType.STRING)
     private GoalType type;            // LOSS, GAIN, MAINTAIN
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @JoinColumn(name = "user_id")
     private User user;                // link to the owner user
 }
@@ -0,0 +1,21 @@
+package com.fitnessapp.fitness_api.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// Last write-behind journal sequence committed by a node; written in the same transaction as the meals
+@Entity
+@Table(name = "meal_ingest_checkpoint")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MealIngestCheckpoint {
+
+    @Id
+    @Column(length = 100)
+    private String node;
+
+    @Column(nullable = false)
+    private long lastSeq;
+}
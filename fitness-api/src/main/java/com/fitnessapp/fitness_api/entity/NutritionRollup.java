@@ -0,0 +1,26 @@
+package com.fitnessapp.fitness_api.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// Week and month tiers above DailyNutritionSummary; maintained from the same meal writes
+@Entity
+@Table(name = "nutrition_rollup")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NutritionRollup {
+
+    @EmbeddedId
+    private NutritionRollupId id;
+
+    private double calories;
+    private double protein;
+    private double carbs;
+    private double fat;
+    private double fiber;
+    private int mealCount;
+    private int daysLogged;     // days with at least one meal
+    private int daysOverTarget; // days whose calories exceeded the user's target when last written
+}
@@ -0,0 +1,25 @@
+package com.fitnessapp.fitness_api.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NutritionRollupId implements Serializable {
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "period", nullable = false, length = 5)
+    private RollupPeriod period;
+
+    // Monday of the week, or the first of the month
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+}
@@ -0,0 +1,27 @@
+package com.fitnessapp.fitness_api.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "revoked_tokens")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RevokedToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // jti claim of the revoked access token
+    @Column(nullable = false, unique = true, length = 36)
+    private String jti;
+
+    // Once the token itself has expired the row can be dropped
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,6 @@
+package com.fitnessapp.fitness_api.entity;
+
+public enum RollupPeriod {
+    WEEK,  // ISO week, starting Monday
+    MONTH
+}
@@ -1,6 +1,7 @@
 package com.fitnessapp.fitness_api.entity;
 
 import com.fitnessapp.fitness_api.entity.Meal;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -55,10 +56,23 @@ public class User {
     @Column(nullable = true)
     private Integer dailyCalorieTarget; // fixed or calculated from BMR
 
+    // Set when account deletion starts; disabled users cannot authenticate or refresh
+    @Column(nullable = false, columnDefinition = "boolean default false")
+    @JsonIgnore
+    @Builder.Default
+    private boolean disabled = false;
+
+    // Never serialized or touched by toString/equals; read meals through MealService
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @Builder.Default
     private List<Meal> meals = new ArrayList<>();
 
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL)
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private List<Goal> detailedGoals;  // for detailed goals after login
 }
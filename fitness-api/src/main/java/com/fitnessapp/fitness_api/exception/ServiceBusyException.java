@@ -0,0 +1,11 @@
+package com.fitnessapp.fitness_api.exception;
+
+/**
+ * Thrown when a bounded worker pool cannot take more work; mapped to 503 by controllers.
+ */
+public class ServiceBusyException extends RuntimeException {
+
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.fitnessapp.fitness_api.repository;
+
+import com.fitnessapp.fitness_api.entity.AccountDeletion;
+import com.fitnessapp.fitness_api.entity.AccountDeletionStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface AccountDeletionRepository extends JpaRepository<AccountDeletion, Long> {
+    List<AccountDeletion> findByStatusNot(AccountDeletionStatus status);
+}
@@ -0,0 +1,7 @@
+package com.fitnessapp.fitness_api.repository;
+
+import com.fitnessapp.fitness_api.entity.BatchJobCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface BatchJobCheckpointRepository extends JpaRepository<BatchJobCheckpoint, String> {
+}
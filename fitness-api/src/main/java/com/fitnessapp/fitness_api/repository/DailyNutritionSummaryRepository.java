@@ -0,0 +1,97 @@
+package com.fitnessapp.fitness_api.repository;
+
+import com.fitnessapp.fitness_api.entity.DailyNutritionSummary;
+import com.fitnessapp.fitness_api.entity.DailyNutritionSummaryId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+public interface DailyNutritionSummaryRepository extends JpaRepository<DailyNutritionSummary, DailyNutritionSummaryId> {
+
+    // Atomic upsert; concurrent writers to the same user-day serialize on the row lock.
+    // A new day takes the given target; an existing day keeps the one it was stamped with.
+    @Modifying
+    @Query(value = """
+            INSERT INTO daily_nutrition_summary
+                (user_id, summary_date, calories, protein, carbs, fat, fiber, meal_count, calorie_target)
+            VALUES (:userId, :date, :calories, :protein, :carbs, :fat, :fiber, :meals, :target)
+            ON CONFLICT (user_id, summary_date) DO UPDATE SET
+                calorie_target = COALESCE(daily_nutrition_summary.calorie_target, EXCLUDED.calorie_target),
+                calories = daily_nutrition_summary.calories + EXCLUDED.calories,
+                protein = daily_nutrition_summary.protein + EXCLUDED.protein,
+                carbs = daily_nutrition_summary.carbs + EXCLUDED.carbs,
+                fat = daily_nutrition_summary.fat + EXCLUDED.fat,
+                fiber = daily_nutrition_summary.fiber + EXCLUDED.fiber,
+                meal_count = daily_nutrition_summary.meal_count + EXCLUDED.meal_count
+            """, nativeQuery = true)
+    void add(@Param("userId") Long userId,
+             @Param("date") LocalDate date,
+             @Param("calories") double calories,
+             @Param("protein") double protein,
+             @Param("carbs") double carbs,
+             @Param("fat") double fat,
+             @Param("fiber") double fiber,
+             @Param("meals") int meals,
+             @Param("target") double target);
+
+    // Totals snap back to zero with the last meal of the day, so rounding residue does not linger
+    @Modifying
+    @Query(value = """
+            UPDATE daily_nutrition_summary SET
+                calories = CASE WHEN meal_count <= :meals THEN 0 ELSE calories - :calories END,
+                protein = CASE WHEN meal_count <= :meals THEN 0 ELSE protein - :protein END,
+                carbs = CASE WHEN meal_count <= :meals THEN 0 ELSE carbs - :carbs END,
+                fat = CASE WHEN meal_count <= :meals THEN 0 ELSE fat - :fat END,
+                fiber = CASE WHEN meal_count <= :meals THEN 0 ELSE fiber - :fiber END,
+                meal_count = GREATEST(0, meal_count - :meals)
+            WHERE user_id = :userId AND summary_date = :date
+            """, nativeQuery = true)
+    void subtract(@Param("userId") Long userId,
+                  @Param("date") LocalDate date,
+                  @Param("calories") double calories,
+                  @Param("protein") double protein,
+                  @Param("carbs") double carbs,
+                  @Param("fat") double fat,
+                  @Param("fiber") double fiber,
+                  @Param("meals") int meals);
+
+    // Native so it reads the row as written in this transaction, bypassing any managed entity
+    @Query(value = "SELECT calories AS calories, meal_count AS \"mealCount\", calorie_target AS \"calorieTarget\" " +
+                   "FROM daily_nutrition_summary " +
+                   "WHERE user_id = :userId AND summary_date = :date", nativeQuery = true)
+    DayTotals findTotals(@Param("userId") Long userId, @Param("date") LocalDate date);
+
+    @Modifying
+    @Query("DELETE FROM DailyNutritionSummary s WHERE s.id.userId = :userId")
+    int deleteAllForUser(@Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO daily_nutrition_summary
+                (user_id, summary_date, calories, protein, carbs, fat, fiber, meal_count, calorie_target)
+            SELECT user_id, meal_date, SUM(calories), SUM(protein), SUM(carbs), SUM(fat), SUM(fiber), COUNT(*), :target
+            FROM meals
+            WHERE user_id = :userId AND meal_date IS NOT NULL
+            GROUP BY user_id, meal_date
+            """, nativeQuery = true)
+    int rebuildForUser(@Param("userId") Long userId, @Param("target") double target);
+
+    // Stamps every day of these users with their current target (2000 when unset, as NutritionRollupService.target)
+    @Modifying
+    @Query(value = """
+            UPDATE daily_nutrition_summary s SET calorie_target = COALESCE(u.daily_calorie_target, 2000)
+            FROM users u
+            WHERE u.id = s.user_id AND u.id IN (:userIds)
+            """, nativeQuery = true)
+    int retargetForUsers(@Param("userIds") Collection<Long> userIds);
+
+    interface DayTotals {
+        Double getCalories();
+        Integer getMealCount();
+        Double getCalorieTarget();
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -30,4 +31,7 @@ public interface FoodRepository extends JpaRepository<Food, Long> {
     
     @Query("SELECT f FROM Food f WHERE f.isActive = true AND f.protein >= :minProtein ORDER BY f.protein DESC")
     List<Food> findHighProteinFoods(@Param("minProtein") Double minProtein);
+    
+    @Query("SELECT f.name FROM Food f WHERE f.name IN :names")
+    List<String> findExistingNames(@Param("names") Collection<String> names);
 }
@@ -1,10 +1,33 @@
 package com.fitnessapp.fitness_api.repository;
 
+import com.fitnessapp.fitness_api.dto.GoalDto;
 import com.fitnessapp.fitness_api.entity.Goal;
 import com.fitnessapp.fitness_api.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
 import java.util.List;
 
 public interface GoalRepository extends JpaRepository<Goal, Long> {
     List<Goal> findByUser(User user);
+
+    @Query("SELECT g.id FROM Goal g WHERE g.user.id = :userId ORDER BY g.id")
+    List<Long> findIdsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Goal g WHERE g.id IN :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM Goal g WHERE g.user.id = :userId")
+    int deleteAllForUser(@Param("userId") Long userId);
+
+    // Reads the goals table only; the owner is never joined or loaded
+    @Query("SELECT new com.fitnessapp.fitness_api.dto.GoalDto(" +
+            "g.id, g.description, g.targetWeight, g.targetDate, g.type, g.user.id) " +
+            "FROM Goal g WHERE g.user.id = :userId ORDER BY g.id")
+    List<GoalDto> findDtosByUserId(@Param("userId") Long userId);
 }
@@ -0,0 +1,7 @@
+package com.fitnessapp.fitness_api.repository;
+
+import com.fitnessapp.fitness_api.entity.MealIngestCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface MealIngestCheckpointRepository extends JpaRepository<MealIngestCheckpoint, String> {
+}
@@ -1,15 +1,86 @@
 package com.fitnessapp.fitness_api.repository;
 
+import com.fitnessapp.fitness_api.dto.MealDto;
 import com.fitnessapp.fitness_api.entity.Meal;
+import com.fitnessapp.fitness_api.entity.MealType;
 import com.fitnessapp.fitness_api.entity.User;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface MealRepository extends JpaRepository<Meal, Long> {
     List<Meal> findByUserAndCreatedAtBetween(User user, LocalDateTime start, LocalDateTime end);
     List<Meal> findByUserAndMealDate(User user, LocalDate date);
     List<Meal> findByUser(User user);
-}
\ No newline at end of file
+
+    // Account deletion works through a user's meals one id chunk at a time
+    @Query("SELECT m.id FROM Meal m WHERE m.user.id = :userId ORDER BY m.id")
+    List<Long> findIdsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Meal m WHERE m.id IN :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
+
+    // The stragglers written while the chunks ran, deleted with the user row
+    @Modifying
+    @Query("DELETE FROM Meal m WHERE m.user.id = :userId")
+    int deleteAllForUser(@Param("userId") Long userId);
+
+    // DTO read paths: only the columns MealDto needs, no User or Food rows
+    String MEAL_DTO = "SELECT new com.fitnessapp.fitness_api.dto.MealDto(" +
+            "m.id, m.user.id, m.food.id, m.foodName, m.mealType, m.quantity, m.calories, m.protein, " +
+            "m.carbs, m.fat, m.fiber, m.mealDate, m.createdAt) FROM Meal m ";
+
+    @Query(MEAL_DTO + "WHERE m.user.id = :userId AND m.mealDate = :date ORDER BY m.id")
+    List<MealDto> findDtosByUserAndDate(@Param("userId") Long userId, @Param("date") LocalDate date);
+
+    @Query(MEAL_DTO + "WHERE m.user.id = :userId ORDER BY m.mealDate, m.id")
+    List<MealDto> findDtosByUser(@Param("userId") Long userId);
+
+    // Per-day, per-meal-type sums for a date range in one round-trip; days without meals have no row
+    @Query("SELECT m.mealDate AS mealDate, m.mealType AS mealType, SUM(m.calories) AS calories, " +
+           "SUM(m.protein) AS protein, SUM(m.carbs) AS carbs, SUM(m.fat) AS fat, SUM(m.fiber) AS fiber, " +
+           "COUNT(m) AS mealCount " +
+           "FROM Meal m WHERE m.user.id = :userId AND m.mealDate BETWEEN :from AND :to " +
+           "GROUP BY m.mealDate, m.mealType ORDER BY m.mealDate")
+    List<DayTypeTotals> sumByDayAndType(@Param("userId") Long userId,
+                                        @Param("from") LocalDate from,
+                                        @Param("to") LocalDate to);
+
+    // How often each food was logged per day since a date; rebuilds the quick-add counters
+    @Query("SELECT m.food.id AS foodId, m.mealDate AS mealDate, COUNT(m) AS uses FROM Meal m " +
+           "WHERE m.user.id = :userId AND m.food IS NOT NULL AND m.mealDate >= :since " +
+           "GROUP BY m.food.id, m.mealDate")
+    List<FoodUse> findFoodUsesSince(@Param("userId") Long userId, @Param("since") LocalDate since);
+
+    // Row lock so two concurrent edits of one meal cannot both apply their delta to the daily summary
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT m FROM Meal m WHERE m.id = :id")
+    Optional<Meal> findByIdForUpdate(@Param("id") Long id);
+
+    interface DayTypeTotals {
+        LocalDate getMealDate();
+        MealType getMealType();
+        Double getCalories();
+        Double getProtein();
+        Double getCarbs();
+        Double getFat();
+        Double getFiber();
+        Long getMealCount();
+    }
+
+    interface FoodUse {
+        Long getFoodId();
+        LocalDate getMealDate();
+        Long getUses();
+    }
+}
@@ -0,0 +1,85 @@
+package com.fitnessapp.fitness_api.repository;
+
+import com.fitnessapp.fitness_api.entity.NutritionRollup;
+import com.fitnessapp.fitness_api.entity.NutritionRollupId;
+import com.fitnessapp.fitness_api.entity.RollupPeriod;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface NutritionRollupRepository extends JpaRepository<NutritionRollup, NutritionRollupId> {
+
+    @Query("SELECT r FROM NutritionRollup r WHERE r.id.userId = :userId AND r.id.period = :period " +
+           "AND r.id.periodStart BETWEEN :from AND :to ORDER BY r.id.periodStart")
+    List<NutritionRollup> findRange(@Param("userId") Long userId,
+                                    @Param("period") RollupPeriod period,
+                                    @Param("from") LocalDate from,
+                                    @Param("to") LocalDate to);
+
+    // Signed deltas, so concurrent writers commute; totals snap to zero when the period empties
+    @Modifying
+    @Query(value = """
+            INSERT INTO nutrition_rollup
+                (user_id, period, period_start, calories, protein, carbs, fat, fiber,
+                 meal_count, days_logged, days_over_target)
+            VALUES (:userId, :period, :periodStart, :calories, :protein, :carbs, :fat, :fiber,
+                    :meals, :daysLogged, :daysOverTarget)
+            ON CONFLICT (user_id, period, period_start) DO UPDATE SET
+                calories = CASE WHEN nutrition_rollup.meal_count + EXCLUDED.meal_count <= 0
+                           THEN 0 ELSE nutrition_rollup.calories + EXCLUDED.calories END,
+                protein = CASE WHEN nutrition_rollup.meal_count + EXCLUDED.meal_count <= 0
+                          THEN 0 ELSE nutrition_rollup.protein + EXCLUDED.protein END,
+                carbs = CASE WHEN nutrition_rollup.meal_count + EXCLUDED.meal_count <= 0
+                        THEN 0 ELSE nutrition_rollup.carbs + EXCLUDED.carbs END,
+                fat = CASE WHEN nutrition_rollup.meal_count + EXCLUDED.meal_count <= 0
+                      THEN 0 ELSE nutrition_rollup.fat + EXCLUDED.fat END,
+                fiber = CASE WHEN nutrition_rollup.meal_count + EXCLUDED.meal_count <= 0
+                        THEN 0 ELSE nutrition_rollup.fiber + EXCLUDED.fiber END,
+                meal_count = GREATEST(0, nutrition_rollup.meal_count + EXCLUDED.meal_count),
+                days_logged = GREATEST(0, nutrition_rollup.days_logged + EXCLUDED.days_logged),
+                days_over_target = GREATEST(0, nutrition_rollup.days_over_target + EXCLUDED.days_over_target)
+            """, nativeQuery = true)
+    void add(@Param("userId") Long userId,
+             @Param("period") String period,
+             @Param("periodStart") LocalDate periodStart,
+             @Param("calories") double calories,
+             @Param("protein") double protein,
+             @Param("carbs") double carbs,
+             @Param("fat") double fat,
+             @Param("fiber") double fiber,
+             @Param("meals") int meals,
+             @Param("daysLogged") int daysLogged,
+             @Param("daysOverTarget") int daysOverTarget);
+
+    @Modifying
+    @Query("DELETE FROM NutritionRollup r WHERE r.id.userId = :userId")
+    int deleteAllForUser(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM NutritionRollup r WHERE r.id.userId IN :userIds")
+    int deleteAllForUsers(@Param("userIds") Collection<Long> userIds);
+
+    // Rebuild both tiers for these users from the day tier, each day judged against its own
+    // stamped target; date_trunc('week') is the ISO (Monday) week
+    @Modifying
+    @Query(value = """
+            INSERT INTO nutrition_rollup
+                (user_id, period, period_start, calories, protein, carbs, fat, fiber,
+                 meal_count, days_logged, days_over_target)
+            SELECT s.user_id, p.period, CAST(date_trunc(p.unit, s.summary_date) AS date),
+                   SUM(s.calories), SUM(s.protein), SUM(s.carbs), SUM(s.fat), SUM(s.fiber),
+                   SUM(s.meal_count),
+                   COUNT(*) FILTER (WHERE s.meal_count > 0),
+                   COUNT(*) FILTER (WHERE s.calories > s.calorie_target)
+            FROM daily_nutrition_summary s
+            CROSS JOIN (VALUES ('WEEK', 'week'), ('MONTH', 'month')) AS p(period, unit)
+            WHERE s.user_id IN (:userIds)
+            GROUP BY s.user_id, p.period, CAST(date_trunc(p.unit, s.summary_date) AS date)
+            """, nativeQuery = true)
+    int rebuildForUsers(@Param("userIds") Collection<Long> userIds);
+}
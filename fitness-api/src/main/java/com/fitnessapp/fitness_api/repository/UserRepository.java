@@ -1,9 +1,78 @@
 package com.fitnessapp.fitness_api.repository;
+import com.fitnessapp.fitness_api.dto.UserProfileDto;
+import com.fitnessapp.fitness_api.entity.ActivityLevel;
+import com.fitnessapp.fitness_api.entity.Gender;
+import com.fitnessapp.fitness_api.entity.GoalType;
 import com.fitnessapp.fitness_api.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
-}
\ No newline at end of file
+
+    // Keyset page of users by id, for batch jobs
+    @Query("SELECT u FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<User> findPageAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    String PROFILE_DTO = "SELECT new com.fitnessapp.fitness_api.dto.UserProfileDto(" +
+            "u.id, u.name, u.username, u.email, u.age, u.weight, u.height, u.gender, u.activityLevel, " +
+            "u.goal, u.dailyCalorieTarget) FROM User u ";
+
+    @Query(PROFILE_DTO + "WHERE u.id = :id")
+    Optional<UserProfileDto> findProfileById(@Param("id") Long id);
+
+    // Keyset page of profiles by id; reads the users table only
+    @Query(PROFILE_DTO + "WHERE u.id > :afterId ORDER BY u.id")
+    List<UserProfileDto> findProfilesAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
+
+    // Inputs of the calorie formula for a keyset page of active users
+    @Query("SELECT u.id AS id, u.age AS age, u.weight AS weight, u.height AS height, u.gender AS gender, " +
+            "u.activityLevel AS activityLevel, u.goal AS goal, u.dailyCalorieTarget AS dailyCalorieTarget " +
+            "FROM User u WHERE u.id > :afterId AND u.disabled = false ORDER BY u.id")
+    List<CalorieInputs> findCalorieInputsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE User u SET u.disabled = true WHERE u.id = :id")
+    int disable(@Param("id") Long id);
+
+    // Bulk delete of the row alone, so the meals/goals cascades are not loaded; children must be gone first
+    @Modifying
+    @Query("DELETE FROM User u WHERE u.id = :id")
+    int deleteRow(@Param("id") Long id);
+
+    // Meal writes hold this share lock on the user row while they change the user's summaries...
+    @Query(value = "SELECT id FROM users WHERE id = :id FOR SHARE", nativeQuery = true)
+    Long lockForMealWrite(@Param("id") Long id);
+
+    // ...so a rebuild, which takes it exclusively, never interleaves with one
+    @Query(value = "SELECT id FROM users WHERE id = :id FOR NO KEY UPDATE", nativeQuery = true)
+    Long lockForSummaryRebuild(@Param("id") Long id);
+
+    // Account deletion takes the full row lock: it also waits for the key share lock of foreign
+    // key checks, so no meal or goal can be inserted for the user until the row is gone
+    @Query(value = "SELECT id FROM users WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Long lockForDelete(@Param("id") Long id);
+
+    interface CalorieInputs {
+        Long getId();
+        Integer getAge();
+        Double getWeight();
+        Double getHeight();
+        Gender getGender();
+        ActivityLevel getActivityLevel();
+        GoalType getGoal();
+        Integer getDailyCalorieTarget();
+    }
+}
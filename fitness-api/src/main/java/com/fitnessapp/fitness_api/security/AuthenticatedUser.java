@@ -0,0 +1,15 @@
+package com.fitnessapp.fitness_api.security;
+
+import java.security.Principal;
+
+/**
+ * Principal placed in the SecurityContext by JwtAuthFilter.
+ * Built from the token's uid and sub claims, so no entity load is needed.
+ */
+public record AuthenticatedUser(Long id, String email) implements Principal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -0,0 +1,16 @@
+package com.fitnessapp.fitness_api.security;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Injects the authenticated user into a controller method.
+ * Supported parameter types are {@link com.fitnessapp.fitness_api.entity.User}
+ * (loaded at most once per request) and {@link AuthenticatedUser} (no query).
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CurrentUser {
+}
@@ -0,0 +1,39 @@
+package com.fitnessapp.fitness_api.security;
+
+import com.fitnessapp.fitness_api.entity.User;
+import com.fitnessapp.fitness_api.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+/**
+ * Per-request home of the authenticated user. JwtAuthFilter sets the principal;
+ * the User entity is loaded lazily and shared by everything in the same request.
+ */
+@Component
+@RequestScope
+@RequiredArgsConstructor
+public class CurrentUserHolder {
+
+    private final UserRepository userRepository;
+
+    private AuthenticatedUser principal;
+    private User user;
+
+    public void setPrincipal(AuthenticatedUser principal) {
+        this.principal = principal;
+        this.user = null;
+    }
+
+    public AuthenticatedUser getPrincipal() {
+        return principal;
+    }
+
+    public User getUser() {
+        if (user == null && principal != null) {
+            user = userRepository.findById(principal.id())
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+        }
+        return user;
+    }
+}
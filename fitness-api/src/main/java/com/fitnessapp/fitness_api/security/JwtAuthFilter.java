@@ -1,7 +1,5 @@
 package com.fitnessapp.fitness_api.security;
 
-import com.fitnessapp.fitness_api.repository.UserRepository;
-import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -9,7 +7,6 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
-import com.fitnessapp.fitness_api.entity.User;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -23,7 +20,9 @@ import java.util.List;
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final UserRepository userRepository;
+    private final UserSnapshotCache userSnapshotCache;
+    private final CurrentUserHolder currentUserHolder;
+    private final TokenDenylist tokenDenylist;
 
     @Override
     protected void doFilterInternal(HttpServletRequest req,
@@ -48,17 +47,23 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
         String token = header.substring(7);
         try {
-            if (jwtService.validateToken(token)) {
-                String email = jwtService.extractUsername(token);
+            JwtService.VerifiedToken verified = jwtService.verify(token);
+            if (verified != null && tokenDenylist.isRevoked(verified.tokenId())) {
+                res.sendError(HttpServletResponse.SC_FORBIDDEN, "Token revoked");
+                return;
+            }
+            if (verified != null) {
+                String email = verified.subject();
                 if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                    User user = userRepository.findByEmail(email).orElse(null);
+                    AuthenticatedUser user = userSnapshotCache.resolve(verified.userId(), email);
                     if (user != null) {
                         var auth = new UsernamePasswordAuthenticationToken(
-                                user.getEmail(),
+                                user,
                                 null,
                                 List.of(new SimpleGrantedAuthority("ROLE_USER"))
                         );
                         SecurityContextHolder.getContext().setAuthentication(auth);
+                        currentUserHolder.setPrincipal(user);
                     } else {
                         res.sendError(HttpServletResponse.SC_FORBIDDEN, "User not found");
                         return;
@@ -3,11 +3,17 @@ package com.fitnessapp.fitness_api.security;
 import com.fitnessapp.fitness_api.entity.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
 import java.util.Date;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 @Component
 public class JwtService {
@@ -18,8 +24,22 @@ public class JwtService {
     @Value("${app.jwt.expiration-ms:3600000}") // default 1h
     private long expirationMs;
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    @Value("${app.jwt.verified-cache-size:10000}")
+    private int verifiedCacheSize;
+
+    // Built once; both are immutable and thread-safe
+    private Key signingKey;
+    private JwtParser parser;
+
+    // token -> already verified claims; bounded, oldest first out. Tokens share one lifetime,
+    // so insertion order is also expiry order and expired entries are the first to go.
+    private final Map<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+    private final Queue<String> insertionOrder = new ConcurrentLinkedQueue<>();
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
     }
 
     public String generateToken(User user) {
@@ -27,26 +47,80 @@ public class JwtService {
         Date exp = new Date(now.getTime() + expirationMs);
 
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(user.getEmail())
                 .claim("uid", user.getId())
                 .setIssuedAt(now)
                 .setExpiration(exp)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public boolean validateToken(String token) {
+    /**
+     * Parses and verifies the token once and returns its subject, uid and jti claims,
+     * or null when the token is malformed, badly signed or expired.
+     * Tokens seen before are answered from the cache without touching the signature.
+     */
+    public VerifiedToken verify(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+
+        VerifiedToken cached = verifiedTokens.get(token);
+        if (cached != null) {
+            // An expired entry stays until it reaches the head of the eviction queue
+            return cached.expiresAt() > now ? cached : null;
+        }
+
+        VerifiedToken verified;
         try {
-            Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(token);
-            return true;
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            Date exp = claims.getExpiration();
+            verified = new VerifiedToken(
+                    claims.getSubject(),
+                    claims.get("uid", Long.class),
+                    claims.getId(),
+                    exp != null ? exp.getTime() : now + expirationMs
+            );
         } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            return null;
         }
+
+        cache(token, verified);
+        return verified;
+    }
+
+    public boolean validateToken(String token) {
+        return verify(token) != null;
     }
 
     public String extractUsername(String token) {
-        Claims claims = Jwts.parserBuilder().setSigningKey(getSigningKey()).build()
-                .parseClaimsJws(token).getBody();
-        return claims.getSubject();
+        VerifiedToken verified = verify(token);
+        if (verified == null) {
+            throw new JwtException("Invalid token");
+        }
+        return verified.subject();
+    }
+
+    // O(1) per insert: each cached token is queued once and evicted once
+    private void cache(String token, VerifiedToken verified) {
+        while (verifiedTokens.size() >= verifiedCacheSize) {
+            String oldest = insertionOrder.poll();
+            if (oldest == null) {
+                break;
+            }
+            verifiedTokens.remove(oldest);
+        }
+        if (verifiedTokens.putIfAbsent(token, verified) == null) {
+            insertionOrder.offer(token);
+        }
+    }
+
+    public long getExpirationMs() {
+        return expirationMs;
+    }
+
+    public record VerifiedToken(String subject, Long userId, String tokenId, long expiresAt) {
     }
 }
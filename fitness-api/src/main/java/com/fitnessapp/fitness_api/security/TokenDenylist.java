@@ -0,0 +1,94 @@
+package com.fitnessapp.fitness_api.security;
+
+import com.fitnessapp.fitness_api.entity.RevokedToken;
+import com.fitnessapp.fitness_api.repository.RefreshTokenRepository;
+import com.fitnessapp.fitness_api.repository.RevokedTokenRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Revoked access tokens (by jti). The Bloom filter answers "not revoked" for almost
+ * every request without a query; only a filter hit is confirmed against the database.
+ * The filter is rebuilt from revoked_tokens once the application is ready, after expired
+ * revocations and expired refresh tokens are deleted; until then every check goes to the
+ * database. The filter is local and only learns revocations made on this node: a token
+ * revoked on another node after this one's rebuild is only seen through the database
+ * fallback, i.e. not at all unless the filter gives a false positive, until the token expires.
+ */
+@Component
+public class TokenDenylist {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final int expectedRevocations;
+    private final double falsePositiveRate;
+
+    private volatile BloomFilter filter;
+    private volatile boolean ready;
+    // Revocations made before the first rebuild finished, which may have read revoked_tokens before they committed
+    private final List<String> revokedBeforeReady = new ArrayList<>();
+
+    public TokenDenylist(RevokedTokenRepository revokedTokenRepository,
+                         RefreshTokenRepository refreshTokenRepository,
+                         @Value("${app.jwt.denylist.expected-revocations:100000}") int expectedRevocations,
+                         @Value("${app.jwt.denylist.false-positive-rate:0.001}") double falsePositiveRate) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = new BloomFilter(expectedRevocations, falsePositiveRate);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        revokedTokenRepository.deleteExpired(now);
+        refreshTokenRepository.deleteExpired(now);
+        List<String> active = revokedTokenRepository.findActiveJtis(now);
+
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedRevocations, active.size() * 2), falsePositiveRate);
+        active.forEach(rebuilt::put);
+        synchronized (this) {
+            revokedBeforeReady.forEach(rebuilt::put);
+            revokedBeforeReady.clear();
+            filter = rebuilt;
+            ready = true;
+        }
+    }
+
+    public void revoke(String jti, long expiresAtMillis) {
+        if (jti == null || revokedTokenRepository.existsByJti(jti)) {
+            return;
+        }
+        revokedTokenRepository.save(RevokedToken.builder()
+                .jti(jti)
+                .expiresAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(expiresAtMillis), ZoneId.systemDefault()))
+                .build());
+        synchronized (this) {
+            filter.put(jti);
+            if (!ready) {
+                revokedBeforeReady.add(jti);
+            }
+        }
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null) {
+            return false;
+        }
+        if (ready && !filter.mightContain(jti)) {
+            return false;
+        }
+        return revokedTokenRepository.existsByJti(jti);
+    }
+}
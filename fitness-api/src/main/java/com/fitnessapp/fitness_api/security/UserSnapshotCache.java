@@ -0,0 +1,115 @@
+package com.fitnessapp.fitness_api.security;
+
+import com.fitnessapp.fitness_api.entity.User;
+import com.fitnessapp.fitness_api.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded in-process cache of the users JwtAuthFilter has already seen,
+ * so the per-request existence check does not need a database query.
+ * Entries must be evicted whenever a user row is written or deleted. Each eviction bumps a
+ * generation (striped by user id), and a database read is only cached if no eviction of that
+ * user happened meanwhile, so a read taken before a write cannot bring back the old row.
+ */
+@Component
+public class UserSnapshotCache {
+
+    private final UserRepository userRepository;
+    private final int maxSize;
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final Map<Long, AuthenticatedUser> snapshots = new ConcurrentHashMap<>();
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    private final Counter hits;
+    private final Counter dbLookups;
+
+    public UserSnapshotCache(UserRepository userRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.auth.user-cache-size:10000}") int maxSize) {
+        this.userRepository = userRepository;
+        this.maxSize = maxSize;
+        this.hits = Counter.builder("auth.user_cache.hits")
+                .description("Authenticated requests answered from the user snapshot cache (DB lookups avoided)")
+                .register(meterRegistry);
+        this.dbLookups = Counter.builder("auth.user_cache.db_lookups")
+                .description("User lookups that had to go to the database")
+                .register(meterRegistry);
+        Gauge.builder("auth.user_cache.hit_ratio", this, UserSnapshotCache::hitRatio)
+                .description("Share of authenticated requests served without a user query")
+                .register(meterRegistry);
+        Gauge.builder("auth.user_cache.size", snapshots, Map::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the snapshot for the token's claims, or null if the user no longer exists, is disabled,
+     * or the email in the token does not match the stored one.
+     */
+    public AuthenticatedUser resolve(Long userId, String email) {
+        if (userId != null) {
+            AuthenticatedUser cached = snapshots.get(userId);
+            if (cached != null) {
+                hits.increment();
+                return cached.email().equals(email) ? cached : null;
+            }
+        }
+
+        dbLookups.increment();
+        long generation = userId != null ? generations.get(stripe(userId)) : 0;
+        User user = (userId != null
+                ? userRepository.findById(userId)
+                : userRepository.findByEmail(email)).orElse(null);
+        if (user == null || user.isDisabled() || !user.getEmail().equals(email)) {
+            return null;
+        }
+
+        AuthenticatedUser snapshot = new AuthenticatedUser(user.getId(), user.getEmail());
+        if (userId != null) {
+            put(snapshot, generation);
+        }
+        return snapshot;
+    }
+
+    public void evict(Long userId) {
+        if (userId != null) {
+            // Bump before removing, so a put racing this eviction always sees one or the other
+            generations.incrementAndGet(stripe(userId));
+            snapshots.remove(userId);
+        }
+    }
+
+    private void put(AuthenticatedUser snapshot, long generation) {
+        if (snapshots.size() >= maxSize) {
+            // Drop an arbitrary entry; a miss only costs one query
+            Iterator<Long> it = snapshots.keySet().iterator();
+            if (it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        }
+        snapshots.put(snapshot.id(), snapshot);
+        // Evicted since our read: the snapshot may predate the write, so take it back out
+        if (generations.get(stripe(snapshot.id())) != generation) {
+            snapshots.remove(snapshot.id(), snapshot);
+        }
+    }
+
+    private static int stripe(Long userId) {
+        return (int) Math.floorMod(userId, (long) GENERATION_STRIPES);
+    }
+
+    private double hitRatio() {
+        double total = hits.count() + dbLookups.count();
+        return total == 0 ? 0.0 : hits.count() / total;
+    }
+}
@@ -0,0 +1,249 @@
+package com.fitnessapp.fitness_api.service;
+
+import com.fitnessapp.fitness_api.entity.AccountDeletion;
+import com.fitnessapp.fitness_api.entity.AccountDeletionStatus;
+import com.fitnessapp.fitness_api.repository.AccountDeletionRepository;
+import com.fitnessapp.fitness_api.repository.DailyNutritionSummaryRepository;
+import com.fitnessapp.fitness_api.repository.GoalRepository;
+import com.fitnessapp.fitness_api.repository.MealRepository;
+import com.fitnessapp.fitness_api.repository.NutritionRollupRepository;
+import com.fitnessapp.fitness_api.repository.RefreshTokenRepository;
+import com.fitnessapp.fitness_api.repository.UserRepository;
+import com.fitnessapp.fitness_api.security.UserSnapshotCache;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Deletes accounts in the background. A request disables the user and revokes their refresh
+ * tokens in one short transaction, so JwtAuthFilter rejects them from then on. A worker then
+ * deletes meals and goals in bounded {@code DELETE ... WHERE id IN (...)} chunks, one
+ * transaction per chunk with the progress row updated alongside, and deletes the user row
+ * last. That final transaction locks the user row first and sweeps up any meal or goal
+ * committed after the chunks, so a late write cannot fail the deletion on the foreign key.
+ * Unfinished deletions are picked up again at startup.
+ */
+@Slf4j
+@Service
+public class AccountDeletionService implements ApplicationRunner {
+
+    private final UserRepository userRepository;
+    private final MealRepository mealRepository;
+    private final GoalRepository goalRepository;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final DailyNutritionSummaryRepository summaryRepository;
+    private final NutritionRollupRepository rollupRepository;
+    private final AccountDeletionRepository deletionRepository;
+    private final UserSnapshotCache userSnapshotCache;
+    private final MealWriteBehind mealWriteBehind;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final long chunkPauseMs;
+    private final long pendingWaitMs;
+    private final Set<Long> running = ConcurrentHashMap.newKeySet();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "account-deletion");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public AccountDeletionService(UserRepository userRepository,
+                                  MealRepository mealRepository,
+                                  GoalRepository goalRepository,
+                                  RefreshTokenRepository refreshTokenRepository,
+                                  DailyNutritionSummaryRepository summaryRepository,
+                                  NutritionRollupRepository rollupRepository,
+                                  AccountDeletionRepository deletionRepository,
+                                  UserSnapshotCache userSnapshotCache,
+                                  MealWriteBehind mealWriteBehind,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${app.users.deletion.chunk-size:1000}") int chunkSize,
+                                  @Value("${app.users.deletion.chunk-pause-ms:0}") long chunkPauseMs,
+                                  @Value("${app.users.deletion.pending-wait-ms:30000}") long pendingWaitMs) {
+        this.userRepository = userRepository;
+        this.mealRepository = mealRepository;
+        this.goalRepository = goalRepository;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.summaryRepository = summaryRepository;
+        this.rollupRepository = rollupRepository;
+        this.deletionRepository = deletionRepository;
+        this.userSnapshotCache = userSnapshotCache;
+        this.mealWriteBehind = mealWriteBehind;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.chunkPauseMs = chunkPauseMs;
+        this.pendingWaitMs = pendingWaitMs;
+    }
+
+    // Resume deletions interrupted by a restart, and retry failed ones
+    @Override
+    public void run(ApplicationArguments args) {
+        for (AccountDeletion deletion : deletionRepository.findByStatusNot(AccountDeletionStatus.COMPLETED)) {
+            schedule(deletion.getUserId());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        worker.shutdownNow();
+    }
+
+    /**
+     * Disables the user and queues the deletion; returns the progress row. Asking again for a
+     * deletion that is already under way just returns its progress (or retries it if it failed).
+     */
+    public AccountDeletion requestDeletion(Long userId) {
+        AccountDeletion deletion = transactionTemplate.execute(status -> {
+            AccountDeletion existing = deletionRepository.findById(userId).orElse(null);
+            if (existing == null) {
+                if (userRepository.disable(userId) == 0) {
+                    throw new RuntimeException("User not found");
+                }
+                refreshTokenRepository.revokeAllForUser(userId);
+                LocalDateTime now = LocalDateTime.now();
+                return deletionRepository.save(AccountDeletion.builder()
+                        .userId(userId)
+                        .status(AccountDeletionStatus.PENDING)
+                        .requestedAt(now)
+                        .updatedAt(now)
+                        .build());
+            }
+            if (existing.getStatus() == AccountDeletionStatus.FAILED) {
+                existing.setStatus(AccountDeletionStatus.PENDING);
+                existing.setUpdatedAt(LocalDateTime.now());
+            }
+            return existing;
+        });
+        // After the commit, so a concurrent cache fill cannot bring back the enabled state
+        userSnapshotCache.evict(userId);
+        if (deletion.getStatus() == AccountDeletionStatus.PENDING) {
+            schedule(userId);
+        }
+        return deletion;
+    }
+
+    public AccountDeletion getProgress(Long userId) {
+        return deletionRepository.findById(userId).orElse(null);
+    }
+
+    private void schedule(Long userId) {
+        if (running.add(userId)) {
+            worker.execute(() -> {
+                try {
+                    delete(userId);
+                } finally {
+                    running.remove(userId);
+                }
+            });
+        }
+    }
+
+    private void delete(Long userId) {
+        long start = System.nanoTime();
+        try {
+            userSnapshotCache.evict(userId);
+            awaitWriteBehind(userId);
+
+            deleteInChunks(userId,
+                    () -> mealRepository.findIdsByUserId(userId, PageRequest.of(0, chunkSize)),
+                    mealRepository::deleteByIdIn,
+                    (deletion, count) -> deletion.setMealsDeleted(deletion.getMealsDeleted() + count));
+            deleteInChunks(userId,
+                    () -> goalRepository.findIdsByUserId(userId, PageRequest.of(0, chunkSize)),
+                    goalRepository::deleteByIdIn,
+                    (deletion, count) -> deletion.setGoalsDeleted(deletion.getGoalsDeleted() + count));
+
+            transactionTemplate.executeWithoutResult(status -> {
+                // Writers that got in first commit before this returns; later ones wait and then
+                // find the user gone
+                userRepository.lockForDelete(userId);
+                int lateMeals = mealRepository.deleteAllForUser(userId);
+                int lateGoals = goalRepository.deleteAllForUser(userId);
+                refreshTokenRepository.deleteAllForUser(userId);
+                summaryRepository.deleteAllForUser(userId);
+                rollupRepository.deleteAllForUser(userId);
+                userRepository.deleteRow(userId);
+                AccountDeletion deletion = deletionRepository.findById(userId).orElseThrow();
+                LocalDateTime now = LocalDateTime.now();
+                deletion.setMealsDeleted(deletion.getMealsDeleted() + lateMeals);
+                deletion.setGoalsDeleted(deletion.getGoalsDeleted() + lateGoals);
+                deletion.setStatus(AccountDeletionStatus.COMPLETED);
+                deletion.setLastError(null);
+                deletion.setUpdatedAt(now);
+                deletion.setCompletedAt(now);
+            });
+            userSnapshotCache.evict(userId);
+            log.info("Deleted account {} in {} ms", userId, (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.warn("Account deletion for user {} failed: {}", userId, e.getMessage());
+            String error = String.valueOf(e.getMessage());
+            transactionTemplate.executeWithoutResult(status -> deletionRepository.findById(userId).ifPresent(deletion -> {
+                deletion.setStatus(AccountDeletionStatus.FAILED);
+                deletion.setLastError(error.length() > 500 ? error.substring(0, 500) : error);
+                deletion.setUpdatedAt(LocalDateTime.now());
+            }));
+        }
+    }
+
+    // Deleted rows never come back, so the first page of ids is always the next chunk
+    private void deleteInChunks(Long userId, Supplier<List<Long>> nextIds,
+                                Function<List<Long>, Integer> deleteIds,
+                                BiConsumer<AccountDeletion, Integer> progress) {
+        while (true) {
+            Integer deleted = transactionTemplate.execute(status -> {
+                List<Long> ids = nextIds.get();
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                int count = deleteIds.apply(ids);
+                AccountDeletion deletion = deletionRepository.findById(userId).orElseThrow();
+                progress.accept(deletion, count);
+                deletion.setUpdatedAt(LocalDateTime.now());
+                return ids.size();
+            });
+            if (deleted == null || deleted < chunkSize) {
+                return;
+            }
+            pause(chunkPauseMs);
+        }
+    }
+
+    // Meals accepted before the user was disabled may still be on their way into the table
+    private void awaitWriteBehind(Long userId) {
+        long deadline = System.currentTimeMillis() + pendingWaitMs;
+        while (!mealWriteBehind.pending(userId).isEmpty()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new RuntimeException("Write-behind meals still pending");
+            }
+            pause(50);
+        }
+    }
+
+    private static void pause(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted");
+        }
+    }
+}
@@ -1,12 +1,15 @@
 package com.fitnessapp.fitness_api.service;
 
+import com.fitnessapp.fitness_api.dto.AuthResponse;
 import com.fitnessapp.fitness_api.dto.LoginRequest;
 import com.fitnessapp.fitness_api.dto.RegisterRequest;
 import com.fitnessapp.fitness_api.entity.User;
 import com.fitnessapp.fitness_api.repository.UserRepository;
+import com.fitnessapp.fitness_api.exception.ServiceBusyException;
 import com.fitnessapp.fitness_api.security.JwtService;
+import com.fitnessapp.fitness_api.security.PasswordHasher;
+import com.fitnessapp.fitness_api.security.TokenDenylist;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -14,9 +17,11 @@ import org.springframework.stereotype.Service;
 public class AuthService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
     private final JwtService jwtService;
     private final UserService userService; // for daily calories
+    private final RefreshTokenService refreshTokenService;
+    private final TokenDenylist tokenDenylist;
 
     // Register
     public User register(RegisterRequest req) {
@@ -27,7 +32,7 @@ public class AuthService {
         User u = User.builder()
                 .name(req.getName())
                 .email(req.getEmail())
-                .password(passwordEncoder.encode(req.getPassword()))
+                .password(passwordHasher.encode(req.getPassword()))
                 .build();
 
         return userRepository.save(u);
@@ -35,13 +40,60 @@ public class AuthService {
 
     // Login
     public String authenticate(LoginRequest req) {
+        return jwtService.generateToken(verifyCredentials(req));
+    }
+
+    // Login returning an access token plus a rotating refresh token
+    public AuthResponse login(LoginRequest req) {
+        return issueTokens(verifyCredentials(req));
+    }
+
+    // Exchange a refresh token for a new pair; no password check involved
+    public AuthResponse refresh(String refreshToken) {
+        return issueTokens(refreshTokenService.rotate(refreshToken));
+    }
+
+    // Revoke the refresh token and, when given, the access token it was used with
+    public void logout(String refreshToken, String accessToken) {
+        if (refreshToken != null) {
+            refreshTokenService.revoke(refreshToken);
+        }
+        if (accessToken != null) {
+            JwtService.VerifiedToken verified = jwtService.verify(accessToken);
+            if (verified != null) {
+                tokenDenylist.revoke(verified.tokenId(), verified.expiresAt());
+            }
+        }
+    }
+
+    private AuthResponse issueTokens(User u) {
+        return new AuthResponse(
+                jwtService.generateToken(u),
+                refreshTokenService.issue(u),
+                jwtService.getExpirationMs() / 1000
+        );
+    }
+
+    private User verifyCredentials(LoginRequest req) {
         User u = userRepository.findByEmail(req.getEmail())
                 .orElseThrow(() -> new RuntimeException("Invalid credentials"));
 
-        if (!passwordEncoder.matches(req.getPassword(), u.getPassword())) {
+        if (!passwordHasher.matches(req.getPassword(), u.getPassword())) {
             throw new RuntimeException("Invalid credentials");
         }
+        if (u.isDisabled()) {
+            throw new RuntimeException("Account is being deleted");
+        }
+
+        // Bring hashes created with an older cost factor up to the configured one
+        if (passwordHasher.needsUpgrade(u.getPassword())) {
+            try {
+                userRepository.updatePassword(u.getId(), passwordHasher.encode(req.getPassword()));
+            } catch (ServiceBusyException e) {
+                // Not worth failing the login over; retried on the next one
+            }
+        }
 
-        return jwtService.generateToken(u);
+        return u;
     }
 }
@@ -0,0 +1,267 @@
+package com.fitnessapp.fitness_api.service;
+
+import com.fitnessapp.fitness_api.dto.BatchJobStatusDto;
+import com.fitnessapp.fitness_api.entity.BatchJobCheckpoint;
+import com.fitnessapp.fitness_api.entity.User;
+import com.fitnessapp.fitness_api.repository.BatchJobCheckpointRepository;
+import com.fitnessapp.fitness_api.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Recomputes every active user's dailyCalorieTarget with the current formula, e.g. after it
+ * was tuned. One reader walks users in id order, selecting only the formula's inputs, and
+ * hands each chunk to a worker pool; workers compute targets and write only the rows whose
+ * target changed, as one JDBC batch in one short transaction per chunk. The update is guarded
+ * by the target that was read, so a profile edit committed meanwhile is never overwritten.
+ * The users whose target changed get their nutrition rollups rebuilt in the same transaction.
+ * The checkpoint only advances past chunks that are done in order, so a stopped or failed
+ * run resumes where it left off and rerunning is harmless. Starts with
+ * {@code --recompute-calorie-targets} or from the admin endpoint.
+ */
+@Slf4j
+@Component
+public class CalorieTargetRecompute implements ApplicationRunner {
+
+    static final String JOB = "calorie-target-recompute";
+
+    private final UserRepository userRepository;
+    private final UserService userService;
+    private final NutritionRollupService nutritionRollupService;
+    private final BatchJobCheckpointRepository checkpointRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int threads;
+    private final long chunkPauseMs;
+    private final Set<String> adminEmails;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final ExecutorService workers;
+
+    // Progress of the current run, for the status endpoint
+    private volatile long runStartNanos;
+    private final AtomicLong runProcessed = new AtomicLong();
+
+    public CalorieTargetRecompute(UserRepository userRepository,
+                                  UserService userService,
+                                  NutritionRollupService nutritionRollupService,
+                                  BatchJobCheckpointRepository checkpointRepository,
+                                  JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${app.users.recompute.chunk-size:1000}") int chunkSize,
+                                  @Value("${app.users.recompute.threads:4}") int threads,
+                                  @Value("${app.users.recompute.chunk-pause-ms:0}") long chunkPauseMs,
+                                  @Value("${app.admin.emails:}") String adminEmails) {
+        this.userRepository = userRepository;
+        this.userService = userService;
+        this.nutritionRollupService = nutritionRollupService;
+        this.checkpointRepository = checkpointRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.threads = Math.max(1, threads);
+        this.chunkPauseMs = chunkPauseMs;
+        this.adminEmails = Arrays.stream(adminEmails.split(","))
+                .map(String::trim)
+                .filter(email -> !email.isEmpty())
+                .map(String::toLowerCase)
+                .collect(Collectors.toSet());
+        AtomicInteger n = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(this.threads, r -> {
+            Thread thread = new Thread(r, "calorie-recompute-" + n.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (args.containsOption("recompute-calorie-targets")) {
+            start(false);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+    }
+
+    // There is no role model; admins are the accounts listed in app.admin.emails
+    public boolean isAdmin(User user) {
+        return user != null && user.getEmail() != null && adminEmails.contains(user.getEmail().toLowerCase());
+    }
+
+    /**
+     * Starts a run on a background thread; returns false when one is already running.
+     * Resumes an unfinished run unless {@code restart} is set; a finished run starts over.
+     */
+    public boolean start(boolean restart) {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        Thread reader = new Thread(() -> {
+            try {
+                recompute(restart);
+            } finally {
+                running.set(false);
+            }
+        }, "calorie-recompute-reader");
+        reader.setDaemon(true);
+        reader.start();
+        return true;
+    }
+
+    public BatchJobStatusDto status() {
+        BatchJobCheckpoint checkpoint = checkpointRepository.findById(JOB).orElse(null);
+        boolean active = running.get();
+        double seconds = (System.nanoTime() - runStartNanos) / 1e9;
+        BatchJobStatusDto.BatchJobStatusDtoBuilder status = BatchJobStatusDto.builder()
+                .job(JOB)
+                .running(active)
+                .rowsPerSecond(active && seconds > 0 ? runProcessed.get() / seconds : 0.0);
+        if (checkpoint != null) {
+            status.lastId(checkpoint.getLastId())
+                    .processed(checkpoint.getProcessed())
+                    .updated(checkpoint.getUpdated())
+                    .lastError(checkpoint.getLastError())
+                    .startedAt(checkpoint.getStartedAt())
+                    .completedAt(checkpoint.getCompletedAt());
+        }
+        return status.build();
+    }
+
+    private void recompute(boolean restart) {
+        BatchJobCheckpoint checkpoint = checkpointRepository.findById(JOB).orElse(null);
+        LocalDateTime now = LocalDateTime.now();
+        if (checkpoint == null || restart || checkpoint.getCompletedAt() != null) {
+            checkpoint = BatchJobCheckpoint.builder().job(JOB).startedAt(now).build();
+        }
+        checkpoint.setLastError(null);
+        checkpoint.setUpdatedAt(now);
+        checkpoint = checkpointRepository.save(checkpoint);
+        log.info("Calorie target recompute {} after id {}", checkpoint.getProcessed() == 0 ? "starting" : "resuming",
+                checkpoint.getLastId());
+
+        runStartNanos = System.nanoTime();
+        runProcessed.set(0);
+        // Chunks in read order; the checkpoint moves past a chunk only once all before it are done
+        Deque<Chunk> inFlight = new ArrayDeque<>();
+        try {
+            long afterId = checkpoint.getLastId();
+            List<UserRepository.CalorieInputs> page;
+            while (!(page = userRepository.findCalorieInputsAfter(afterId, PageRequest.of(0, chunkSize))).isEmpty()) {
+                List<UserRepository.CalorieInputs> rows = page;
+                afterId = rows.get(rows.size() - 1).getId();
+                inFlight.addLast(new Chunk(afterId, rows.size(), workers.submit(() -> writeChunk(rows))));
+                while (inFlight.size() >= threads * 2) {
+                    complete(checkpoint, inFlight.removeFirst());
+                }
+                pause();
+            }
+            while (!inFlight.isEmpty()) {
+                complete(checkpoint, inFlight.removeFirst());
+            }
+            checkpoint.setCompletedAt(LocalDateTime.now());
+            checkpoint.setUpdatedAt(checkpoint.getCompletedAt());
+            checkpointRepository.save(checkpoint);
+            double seconds = (System.nanoTime() - runStartNanos) / 1e9;
+            log.info("Calorie target recompute finished: {} users read, {} updated, {} users/s",
+                    checkpoint.getProcessed(), checkpoint.getUpdated(), Math.round(runProcessed.get() / Math.max(seconds, 1e-3)));
+        } catch (RuntimeException | InterruptedException | ExecutionException e) {
+            inFlight.forEach(chunk -> chunk.result().cancel(true));
+            Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+            String error = String.valueOf(cause.getMessage());
+            log.warn("Calorie target recompute stopped after id {}: {}", checkpoint.getLastId(), error);
+            checkpoint.setLastError(error.length() > 500 ? error.substring(0, 500) : error);
+            checkpoint.setUpdatedAt(LocalDateTime.now());
+            checkpointRepository.save(checkpoint);
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void complete(BatchJobCheckpoint checkpoint, Chunk chunk) throws InterruptedException, ExecutionException {
+        int updated = chunk.result().get();
+        checkpoint.setLastId(chunk.lastId());
+        checkpoint.setProcessed(checkpoint.getProcessed() + chunk.size());
+        checkpoint.setUpdated(checkpoint.getUpdated() + updated);
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        checkpointRepository.save(checkpoint);
+        runProcessed.addAndGet(chunk.size());
+    }
+
+    // Runs on a worker: computes the chunk's targets and writes the changed ones in one batch
+    private int writeChunk(List<UserRepository.CalorieInputs> rows) {
+        List<Object[]> changes = new ArrayList<>();
+        for (UserRepository.CalorieInputs row : rows) {
+            // Same rule as profile updates: no target until age, weight and height are known
+            if (row.getAge() == null || row.getWeight() == null || row.getHeight() == null) {
+                continue;
+            }
+            int target = userService.calculateDailyCalories(User.builder()
+                    .age(row.getAge())
+                    .weight(row.getWeight())
+                    .height(row.getHeight())
+                    .gender(row.getGender())
+                    .activityLevel(row.getActivityLevel())
+                    .goal(row.getGoal())
+                    .build());
+            if (!Objects.equals(row.getDailyCalorieTarget(), target)) {
+                changes.add(new Object[] { target, row.getId(), row.getDailyCalorieTarget() });
+            }
+        }
+        if (changes.isEmpty()) {
+            return 0;
+        }
+        return transactionTemplate.execute(status -> {
+            int[] counts = jdbcTemplate.batchUpdate(
+                    "UPDATE users SET daily_calorie_target = ? WHERE id = ? AND daily_calorie_target IS NOT DISTINCT FROM CAST(? AS integer)",
+                    changes);
+            List<Long> retargeted = new ArrayList<>();
+            for (int i = 0; i < counts.length; i++) {
+                // Drivers may report SUCCESS_NO_INFO (-2) for batched statements
+                if (counts[i] == -2 || counts[i] > 0) {
+                    retargeted.add((Long) changes.get(i)[1]);
+                }
+            }
+            // Days over target are counted against the new targets from here on
+            nutritionRollupService.retarget(retargeted);
+            return retargeted.size();
+        });
+    }
+
+    private void pause() throws InterruptedException {
+        if (chunkPauseMs > 0) {
+            Thread.sleep(chunkPauseMs);
+        }
+    }
+
+    private record Chunk(long lastId, int size, Future<Integer> result) {
+    }
+}
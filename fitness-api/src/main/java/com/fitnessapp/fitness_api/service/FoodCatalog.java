@@ -0,0 +1,478 @@
+package com.fitnessapp.fitness_api.service;
+
+import com.fitnessapp.fitness_api.dto.FoodDto;
+import com.fitnessapp.fitness_api.entity.FoodCategory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Immutable in-memory snapshot of the active food catalog.
+ * Readers grab the current snapshot without locking; writers build a new one
+ * and swap it in, so a reader never sees a half-applied change.
+ * FoodService owns loading and keeps it in step with its writes.
+ */
+@Slf4j
+@Component
+public class FoodCatalog {
+
+    private volatile Snapshot snapshot;
+
+    public FoodCatalog(MeterRegistry meterRegistry) {
+        Gauge.builder("food_catalog.size", this, c -> c.snapshot == null ? 0 : c.snapshot.size())
+                .register(meterRegistry);
+        Gauge.builder("food_catalog.bytes_per_food", this, c -> c.snapshot == null ? 0 : c.snapshot.bytesPerFood())
+                .description("Estimated heap used per active food in the catalog snapshot")
+                .register(meterRegistry);
+    }
+
+    public boolean isLoaded() {
+        return snapshot != null;
+    }
+
+    public Snapshot snapshot() {
+        return snapshot;
+    }
+
+    public synchronized void replaceAll(List<FoodDto> activeFoods) {
+        long version = snapshot == null ? 1 : snapshot.version() + 1;
+        install(new Snapshot(version, activeFoods));
+    }
+
+    // Adds or replaces a food; inactive foods are dropped from the snapshot
+    public synchronized void upsert(FoodDto food) {
+        if (snapshot == null) {
+            return;
+        }
+        int existing = snapshot.indexOf(food.getId());
+        boolean active = Boolean.TRUE.equals(food.getIsActive());
+        if (existing < 0 && !active) {
+            return;
+        }
+        install(snapshot.splice(existing, active ? food : null));
+    }
+
+    public synchronized void remove(Long id) {
+        if (snapshot == null) {
+            return;
+        }
+        int existing = snapshot.indexOf(id);
+        if (existing >= 0) {
+            install(snapshot.splice(existing, null));
+        }
+    }
+
+    private void install(Snapshot next) {
+        snapshot = next;
+        log.info("Food catalog v{}: {} active foods, ~{} bytes/food",
+                next.version(), next.size(), next.bytesPerFood());
+    }
+
+    /**
+     * Column layout of one catalog version. Besides the per-food columns (by position, foods
+     * sorted by id) it holds, per nutrient, the positions in ascending value order together
+     * with the values in that order, so a value range is a slice found by binary search; and
+     * per category, the positions as a list and as a bitset. A full build sorts each column
+     * once; a single-food write splices the previous snapshot in linear time without sorting.
+     */
+    public static final class Snapshot {
+
+        static final int CALORIES = 0;
+        static final int PROTEIN = 1;
+        static final int CARBS = 2;
+        static final int FAT = 3;
+        static final int FIBER = 4;
+        static final int NUTRIENTS = 5;
+
+        private static final int CATEGORIES = FoodCategory.values().length;
+
+        private final long version;
+
+        // Column layout, all indexed by position (foods sorted by id)
+        private final FoodDto[] foods;
+        private final long[] ids;
+        private final double[][] values; // per nutrient
+        private final byte[] categories;
+
+        // Precomputed orderings, as positions into the columns
+        private final int[][] ascending;      // per nutrient
+        private final double[][] sortedValues; // per nutrient, values in ascending order
+        private final int[] proteinDesc;
+        private final int[][] byCategory;
+        private final long[][] categoryBits;
+
+        private final long estimatedBytes;
+
+        Snapshot(long version, List<FoodDto> source) {
+            this.version = version;
+            this.foods = source.toArray(new FoodDto[0]);
+            Arrays.sort(foods, Comparator.comparing(FoodDto::getId));
+
+            int n = foods.length;
+            ids = new long[n];
+            values = new double[NUTRIENTS][n];
+            categories = new byte[n];
+            for (int i = 0; i < n; i++) {
+                setColumns(i, foods[i]);
+            }
+
+            ascending = new int[NUTRIENTS][];
+            sortedValues = new double[NUTRIENTS][];
+            for (int m = 0; m < NUTRIENTS; m++) {
+                ascending[m] = sortPositions(values[m]);
+                sortedValues[m] = valuesInOrder(values[m], ascending[m]);
+            }
+            proteinDesc = reversed(ascending[PROTEIN]);
+            byCategory = new int[CATEGORIES][];
+            categoryBits = new long[CATEGORIES][];
+            indexCategories();
+            estimatedBytes = estimateBytes();
+        }
+
+        /**
+         * The next version with the food at {@code removed} dropped (-1 for none) and
+         * {@code inserted} added at its id position (null for none). Every surviving food
+         * keeps its relative order in every index, so nothing needs sorting.
+         */
+        Snapshot splice(int removed, FoodDto inserted) {
+            return new Snapshot(this, removed, inserted);
+        }
+
+        private Snapshot(Snapshot previous, int removed, FoodDto inserted) {
+            version = previous.version + 1;
+            int oldSize = previous.foods.length;
+            int afterRemoval = removed >= 0 ? oldSize - 1 : oldSize;
+            // Insertion point in post-removal positions
+            int at = -1;
+            if (inserted != null) {
+                int search = Arrays.binarySearch(previous.ids, inserted.getId());
+                at = search >= 0 ? search : -search - 1;
+                if (removed >= 0 && removed < at) {
+                    at--;
+                }
+            }
+            int n = afterRemoval + (inserted != null ? 1 : 0);
+
+            // New position of each old position, -1 for the removed one
+            int[] moved = new int[oldSize];
+            for (int i = 0; i < oldSize; i++) {
+                if (i == removed) {
+                    moved[i] = -1;
+                    continue;
+                }
+                int p = removed >= 0 && i > removed ? i - 1 : i;
+                moved[i] = at >= 0 && p >= at ? p + 1 : p;
+            }
+
+            foods = new FoodDto[n];
+            ids = new long[n];
+            values = new double[NUTRIENTS][n];
+            categories = new byte[n];
+            for (int i = 0; i < oldSize; i++) {
+                int p = moved[i];
+                if (p < 0) {
+                    continue;
+                }
+                foods[p] = previous.foods[i];
+                ids[p] = previous.ids[i];
+                for (int m = 0; m < NUTRIENTS; m++) {
+                    values[m][p] = previous.values[m][i];
+                }
+                categories[p] = previous.categories[i];
+            }
+            if (inserted != null) {
+                foods[at] = inserted;
+                setColumns(at, inserted);
+            }
+
+            ascending = new int[NUTRIENTS][];
+            sortedValues = new double[NUTRIENTS][];
+            for (int m = 0; m < NUTRIENTS; m++) {
+                int[] order = new int[n];
+                double[] sorted = new double[n];
+                double value = inserted != null ? values[m][at] : 0;
+                boolean pending = inserted != null;
+                int k = 0;
+                for (int position : previous.ascending[m]) {
+                    int p = moved[position];
+                    if (p < 0) {
+                        continue;
+                    }
+                    double v = previous.values[m][position];
+                    if (pending && v > value) {
+                        order[k] = at;
+                        sorted[k++] = value;
+                        pending = false;
+                    }
+                    order[k] = p;
+                    sorted[k++] = v;
+                }
+                if (pending) {
+                    order[k] = at;
+                    sorted[k] = value;
+                }
+                ascending[m] = order;
+                sortedValues[m] = sorted;
+            }
+            proteinDesc = reversed(ascending[PROTEIN]);
+            byCategory = new int[CATEGORIES][];
+            categoryBits = new long[CATEGORIES][];
+            indexCategories();
+            estimatedBytes = estimateBytes();
+        }
+
+        private void setColumns(int i, FoodDto f) {
+            ids[i] = f.getId();
+            values[CALORIES][i] = valueOf(f.getCalories());
+            values[PROTEIN][i] = valueOf(f.getProtein());
+            values[CARBS][i] = valueOf(f.getCarbs());
+            values[FAT][i] = valueOf(f.getFat());
+            values[FIBER][i] = valueOf(f.getFiber());
+            categories[i] = (byte) (f.getCategory() == null ? FoodCategory.OTHER : f.getCategory()).ordinal();
+        }
+
+        // One counting pass; positions come out in id order within each category
+        private void indexCategories() {
+            int n = foods.length;
+            int words = (n + 63) >>> 6;
+            int[] counts = new int[CATEGORIES];
+            for (byte c : categories) {
+                counts[c]++;
+            }
+            for (int c = 0; c < CATEGORIES; c++) {
+                byCategory[c] = new int[counts[c]];
+                categoryBits[c] = new long[words];
+            }
+            int[] fill = new int[CATEGORIES];
+            for (int i = 0; i < n; i++) {
+                int c = categories[i];
+                byCategory[c][fill[c]++] = i;
+                categoryBits[c][i >>> 6] |= 1L << i;
+            }
+        }
+
+        public long version() {
+            return version;
+        }
+
+        public int size() {
+            return foods.length;
+        }
+
+        public List<FoodDto> all() {
+            return new View(foods, null, 0, foods.length);
+        }
+
+        public List<FoodDto> byCategory(FoodCategory category) {
+            int[] slice = byCategory[category.ordinal()];
+            return new View(foods, slice, 0, slice.length);
+        }
+
+        // Foods with calories <= max, lowest first
+        public List<FoodDto> caloriesAtMost(double max) {
+            return new View(foods, ascending[CALORIES], 0, upperBound(sortedValues[CALORIES], max));
+        }
+
+        // Foods with protein >= min, highest first
+        public List<FoodDto> proteinAtLeast(double min) {
+            int below = lowerBound(sortedValues[PROTEIN], min);
+            return new View(foods, proteinDesc, 0, foods.length - below);
+        }
+
+        // Raw per-100g columns for scanning code in this package; callers must not modify them
+        double[] caloriesColumn() {
+            return values[CALORIES];
+        }
+
+        double[] proteinColumn() {
+            return values[PROTEIN];
+        }
+
+        double[] carbsColumn() {
+            return values[CARBS];
+        }
+
+        double[] fatColumn() {
+            return values[FAT];
+        }
+
+        double[] fiberColumn() {
+            return values[FIBER];
+        }
+
+        byte[] categoryColumn() {
+            return categories;
+        }
+
+        int[] caloriesAscending() {
+            return ascending[CALORIES];
+        }
+
+        // Positions sorted by the nutrient's value, and the values in that order
+        int[] ascending(int nutrient) {
+            return ascending[nutrient];
+        }
+
+        double[] sortedValues(int nutrient) {
+            return sortedValues[nutrient];
+        }
+
+        long[] categoryBits(FoodCategory category) {
+            return categoryBits[category.ordinal()];
+        }
+
+        FoodDto at(int position) {
+            return foods[position];
+        }
+
+        public FoodDto get(Long id) {
+            int pos = indexOf(id);
+            return pos < 0 ? null : foods[pos];
+        }
+
+        int indexOf(Long id) {
+            return id == null ? -1 : Math.max(-1, Arrays.binarySearch(ids, id));
+        }
+
+        public long bytesPerFood() {
+            return foods.length == 0 ? 0 : estimatedBytes / foods.length;
+        }
+
+        // Rough heap estimate assuming compressed oops and compact (Latin-1) strings
+        private long estimateBytes() {
+            int n = foods.length;
+            long columns = n * (8L + NUTRIENTS * 8L + 1L);
+            long orderings = n * (NUTRIENTS * (4L + 8L) + 4L) + CATEGORIES * (long) ((n + 63) >>> 6) * 8;
+            long dtos = 0;
+            for (FoodDto f : foods) {
+                dtos += 16 + 11 * 4;      // object header + 11 references
+                dtos += 16 + 5 * 16;      // boxed id and five boxed doubles
+                dtos += stringBytes(f.getName()) + stringBytes(f.getDescription()) + stringBytes(f.getImageUrl());
+            }
+            return columns + orderings + n * 4L + dtos;
+        }
+
+        private static long stringBytes(String s) {
+            return s == null ? 0 : 24 + 16 + s.length();
+        }
+
+        private static double valueOf(Double d) {
+            return d == null ? 0.0 : d;
+        }
+    }
+
+    // Positions 0..n-1 ordered by column value; a stable bottom-up merge sort on primitives
+    static int[] sortPositions(double[] column) {
+        int n = column.length;
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        int[] buffer = new int[n];
+        for (int width = 1; width < n; width <<= 1) {
+            for (int lo = 0; lo < n; lo += width << 1) {
+                int mid = Math.min(lo + width, n);
+                int hi = Math.min(lo + (width << 1), n);
+                int i = lo;
+                int j = mid;
+                int k = lo;
+                while (i < mid && j < hi) {
+                    buffer[k++] = column[order[j]] < column[order[i]] ? order[j++] : order[i++];
+                }
+                while (i < mid) {
+                    buffer[k++] = order[i++];
+                }
+                while (j < hi) {
+                    buffer[k++] = order[j++];
+                }
+            }
+            int[] swap = order;
+            order = buffer;
+            buffer = swap;
+        }
+        return order;
+    }
+
+    private static double[] valuesInOrder(double[] column, int[] order) {
+        double[] sorted = new double[order.length];
+        for (int i = 0; i < order.length; i++) {
+            sorted[i] = column[order[i]];
+        }
+        return sorted;
+    }
+
+    private static int[] reversed(int[] order) {
+        int[] result = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            result[i] = order[order.length - 1 - i];
+        }
+        return result;
+    }
+
+    // First index with value >= key
+    static int lowerBound(double[] sorted, double key) {
+        int lo = 0;
+        int hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] < key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // First index with value > key
+    static int upperBound(double[] sorted, double key) {
+        int lo = 0;
+        int hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] <= key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // Read-only list over a range of positions, optionally through an ordering
+    private static final class View extends AbstractList<FoodDto> implements RandomAccess {
+
+        private final FoodDto[] foods;
+        private final int[] order;
+        private final int from;
+        private final int to;
+
+        View(FoodDto[] foods, int[] order, int from, int to) {
+            this.foods = foods;
+            this.order = order;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public FoodDto get(int index) {
+            if (index < 0 || index >= to - from) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            int pos = from + index;
+            return foods[order == null ? pos : order[pos]];
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+    }
+}
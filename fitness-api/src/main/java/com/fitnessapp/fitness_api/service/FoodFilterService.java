@@ -0,0 +1,136 @@
+package com.fitnessapp.fitness_api.service;
+
+import com.fitnessapp.fitness_api.dto.FoodDto;
+import com.fitnessapp.fitness_api.dto.FoodFilterRequest;
+import com.fitnessapp.fitness_api.dto.FoodPageDto;
+import com.fitnessapp.fitness_api.entity.FoodCategory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Multi-attribute range filtering over the in-memory catalog.
+ * Each catalog snapshot carries a sorted position index per nutrient, so a range maps to a
+ * contiguous slice found by binary search; slices and the requested categories' bitsets
+ * are intersected. Results are paged by walking the sort nutrient's index and testing bits,
+ * which stops as soon as the page is full. The indexes are built when a snapshot is
+ * published, never on the request path.
+ */
+@Service
+@RequiredArgsConstructor
+public class FoodFilterService {
+
+    // Same order as the FoodCatalog.Snapshot nutrient indexes
+    private static final String[] NUTRIENTS = {"calories", "protein", "carbs", "fat", "fiber"};
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private final FoodService foodService;
+
+    public FoodPageDto filter(FoodFilterRequest request) {
+        FoodCatalog.Snapshot catalog = foodService.catalog();
+        int n = catalog.size();
+        int words = (n + 63) >>> 6;
+
+        Double[][] ranges = {
+                {request.getMinCalories(), request.getMaxCalories()},
+                {request.getMinProtein(), request.getMaxProtein()},
+                {request.getMinCarbs(), request.getMaxCarbs()},
+                {request.getMinFat(), request.getMaxFat()},
+                {request.getMinFiber(), request.getMaxFiber()}
+        };
+
+        long[] bits = null;
+        for (int m = 0; m < NUTRIENTS.length; m++) {
+            Double min = ranges[m][0];
+            Double max = ranges[m][1];
+            if (min == null && max == null) {
+                continue;
+            }
+            double[] sorted = catalog.sortedValues(m);
+            int[] order = catalog.ascending(m);
+            int from = min == null ? 0 : FoodCatalog.lowerBound(sorted, min);
+            int to = max == null ? n : FoodCatalog.upperBound(sorted, max);
+            long[] range = new long[words];
+            for (int i = from; i < to; i++) {
+                int position = order[i];
+                range[position >>> 6] |= 1L << position;
+            }
+            bits = bits == null ? range : and(bits, range);
+        }
+
+        if (request.getCategories() != null && !request.getCategories().isEmpty()) {
+            long[] union = new long[words];
+            for (FoodCategory category : request.getCategories()) {
+                long[] categoryBits = catalog.categoryBits(category);
+                for (int w = 0; w < words; w++) {
+                    union[w] |= categoryBits[w];
+                }
+            }
+            bits = bits == null ? union : and(bits, union);
+        }
+
+        if (bits == null) {
+            bits = new long[words];
+            for (int i = 0; i < n; i++) {
+                bits[i >>> 6] |= 1L << i;
+            }
+        }
+
+        long total = 0;
+        for (long word : bits) {
+            total += Long.bitCount(word);
+        }
+
+        int size = Math.max(1, Math.min(request.getSize(), MAX_PAGE_SIZE));
+        int page = Math.max(0, request.getPage());
+        long skip = (long) page * size;
+        boolean descending = "desc".equalsIgnoreCase(request.getDirection());
+        int sortNutrient = nutrientIndex(request.getSort());
+        int[] sortOrder = sortNutrient < 0 ? null : catalog.ascending(sortNutrient);
+
+        List<FoodDto> content = new ArrayList<>(size);
+        for (int i = 0; i < n && content.size() < size; i++) {
+            int rank = descending ? n - 1 - i : i;
+            int position = sortOrder == null ? rank : sortOrder[rank];
+            if ((bits[position >>> 6] & (1L << position)) == 0) {
+                continue;
+            }
+            if (skip > 0) {
+                skip--;
+                continue;
+            }
+            content.add(catalog.at(position));
+        }
+
+        return FoodPageDto.builder()
+                .content(content)
+                .totalElements(total)
+                .page(page)
+                .size(size)
+                .build();
+    }
+
+    // -1 means id order, which is the catalog's own position order
+    private static int nutrientIndex(String sort) {
+        if (sort == null) {
+            return -1;
+        }
+        String key = sort.toLowerCase(Locale.ROOT);
+        for (int m = 0; m < NUTRIENTS.length; m++) {
+            if (NUTRIENTS[m].equals(key)) {
+                return m;
+            }
+        }
+        return -1;
+    }
+
+    private static long[] and(long[] a, long[] b) {
+        for (int w = 0; w < a.length; w++) {
+            a[w] &= b[w];
+        }
+        return a;
+    }
+}
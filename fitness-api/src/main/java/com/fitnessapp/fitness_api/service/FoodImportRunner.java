@@ -0,0 +1,55 @@
+package com.fitnessapp.fitness_api.service;
+
+import com.fitnessapp.fitness_api.dto.FoodImportResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Command-line food import, e.g.
+ * {@code java -jar fitness-api.jar --import-foods=foods.csv [--import-format=ndjson]}.
+ * The format defaults to the file extension (.ndjson / .jsonl, otherwise CSV).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FoodImportRunner implements ApplicationRunner {
+
+    private final FoodImportService foodImportService;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (!args.containsOption("import-foods")) {
+            return;
+        }
+        for (String file : args.getOptionValues("import-foods")) {
+            Path path = Path.of(file);
+            FoodImportService.Format format = format(args, path);
+            log.info("Importing foods from {} as {}", path, format);
+            try (InputStream in = Files.newInputStream(path)) {
+                FoodImportResult result = foodImportService.importFoods(in, format);
+                log.info("Imported {}: {} inserted, {} duplicates, {} invalid of {} rows in {} ms ({} rows/s)",
+                        path, result.getInserted(), result.getDuplicates(), result.getInvalid(),
+                        result.getRowsRead(), result.getElapsedMs(), Math.round(result.getRowsPerSecond()));
+                result.getErrors().forEach(error -> log.warn("  {}", error));
+            }
+        }
+    }
+
+    private static FoodImportService.Format format(ApplicationArguments args, Path path) {
+        if (args.containsOption("import-format")) {
+            return FoodImportService.Format.valueOf(args.getOptionValues("import-format").get(0).toUpperCase(Locale.ROOT));
+        }
+        String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        return name.endsWith(".ndjson") || name.endsWith(".jsonl")
+                ? FoodImportService.Format.NDJSON
+                : FoodImportService.Format.CSV;
+    }
+}
@@ -0,0 +1,312 @@
+package com.fitnessapp.fitness_api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fitnessapp.fitness_api.dto.FoodDto;
+import com.fitnessapp.fitness_api.dto.FoodImportResult;
+import com.fitnessapp.fitness_api.entity.Food;
+import com.fitnessapp.fitness_api.entity.FoodCategory;
+import com.fitnessapp.fitness_api.repository.FoodRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Streams a CSV or NDJSON food file into the database in fixed-size batches.
+ * Only one batch is held in memory at a time, so memory use does not depend on file size.
+ * Duplicate names are skipped, both within a batch and against rows already stored. A name
+ * stored concurrently (another import or POST /api/foods) fails the batch on the unique
+ * constraint; the batch is then retried row by row and the losing rows count as duplicates.
+ *
+ * CSV columns (header required, any order):
+ * name,calories,protein,carbs,fat,fiber,category,description,imageUrl
+ */
+@Slf4j
+@Service
+public class FoodImportService {
+
+    public enum Format { CSV, NDJSON }
+
+    private static final int MAX_REPORTED_ERRORS = 20;
+
+    private final FoodRepository foodRepository;
+    private final FoodService foodService;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    public FoodImportService(FoodRepository foodRepository,
+                             FoodService foodService,
+                             EntityManager entityManager,
+                             PlatformTransactionManager transactionManager,
+                             ObjectMapper objectMapper,
+                             @Value("${app.foods.import.batch-size:1000}") int batchSize) {
+        this.foodRepository = foodRepository;
+        this.foodService = foodService;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+    }
+
+    public FoodImportResult importFoods(InputStream input, Format format) throws IOException {
+        long start = System.nanoTime();
+        Progress progress = new Progress();
+        Map<String, Food> batch = new LinkedHashMap<>();
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 1 << 16);
+        String[] header = null;
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == Format.CSV && header == null) {
+                header = parseCsvLine(line);
+                for (int i = 0; i < header.length; i++) {
+                    header[i] = header[i].trim().toLowerCase(Locale.ROOT);
+                }
+                continue;
+            }
+
+            progress.rowsRead++;
+            try {
+                FoodDto row = format == Format.CSV ? csvRow(header, parseCsvLine(line)) : ndjsonRow(line);
+                Food food = validate(row);
+                if (batch.putIfAbsent(food.getName(), food) != null) {
+                    progress.duplicates++;
+                }
+            } catch (IllegalArgumentException | IOException e) {
+                progress.invalid++;
+                progress.error("line " + lineNumber + ": " + e.getMessage());
+            }
+
+            if (batch.size() >= batchSize) {
+                flush(batch, progress, start);
+            }
+        }
+        flush(batch, progress, start);
+
+        // Bring the in-memory catalog and search index up to date in one pass
+        if (progress.inserted > 0) {
+            foodService.reloadCatalog();
+        }
+
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        return FoodImportResult.builder()
+                .rowsRead(progress.rowsRead)
+                .inserted(progress.inserted)
+                .duplicates(progress.duplicates)
+                .invalid(progress.invalid)
+                .elapsedMs(elapsedMs)
+                .rowsPerSecond(rate(progress.rowsRead, elapsedMs))
+                .errors(progress.errors)
+                .build();
+    }
+
+    private void flush(Map<String, Food> batch, Progress progress, long start) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        int count;
+        try {
+            count = transactionTemplate.execute(status -> insertNew(batch.values()));
+        } catch (DataIntegrityViolationException e) {
+            log.info("Food import: batch hit a name stored concurrently, retrying it row by row");
+            count = insertOneByOne(batch.values());
+        }
+
+        progress.inserted += count;
+        progress.duplicates += batch.size() - count;
+        batch.clear();
+
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        log.info("Food import: {} rows read, {} inserted, {} duplicates, {} invalid ({} rows/s)",
+                progress.rowsRead, progress.inserted, progress.duplicates, progress.invalid,
+                Math.round(rate(progress.rowsRead, elapsedMs)));
+    }
+
+    // Inserts the foods whose name is not stored yet; returns how many
+    private int insertNew(Collection<Food> foods) {
+        Set<String> existing = new HashSet<>(foodRepository.findExistingNames(
+                foods.stream().map(Food::getName).toList()));
+        List<Food> fresh = new ArrayList<>(foods.size());
+        for (Food food : foods) {
+            if (!existing.contains(food.getName())) {
+                fresh.add(food);
+            }
+        }
+        foodRepository.saveAll(fresh);
+        // Through the repository so a unique violation surfaces as DataIntegrityViolationException
+        foodRepository.flush();
+        entityManager.clear();
+        return fresh.size();
+    }
+
+    // Validation already covers every other constraint, so a violation here is the unique name
+    private int insertOneByOne(Collection<Food> foods) {
+        int inserted = 0;
+        for (Food food : foods) {
+            food.setId(null); // assigned by the rolled-back attempt
+            try {
+                inserted += transactionTemplate.execute(status -> insertNew(List.of(food)));
+            } catch (DataIntegrityViolationException e) {
+                // Lost the race for this name
+            }
+        }
+        return inserted;
+    }
+
+    private FoodDto csvRow(String[] header, String[] values) {
+        if (header == null) {
+            throw new IllegalArgumentException("missing CSV header");
+        }
+        FoodDto dto = new FoodDto();
+        for (int i = 0; i < header.length && i < values.length; i++) {
+            String value = values[i].trim();
+            if (value.isEmpty()) {
+                continue;
+            }
+            switch (header[i]) {
+                case "name" -> dto.setName(value);
+                case "calories" -> dto.setCalories(number(value, "calories"));
+                case "protein" -> dto.setProtein(number(value, "protein"));
+                case "carbs" -> dto.setCarbs(number(value, "carbs"));
+                case "fat" -> dto.setFat(number(value, "fat"));
+                case "fiber" -> dto.setFiber(number(value, "fiber"));
+                case "category" -> dto.setCategory(category(value));
+                case "description" -> dto.setDescription(value);
+                case "imageurl", "image_url" -> dto.setImageUrl(value);
+                default -> { } // unknown columns are ignored
+            }
+        }
+        return dto;
+    }
+
+    private FoodDto ndjsonRow(String line) throws IOException {
+        return objectMapper.readValue(line, FoodDto.class);
+    }
+
+    private Food validate(FoodDto dto) {
+        String name = dto.getName() == null ? null : dto.getName().trim();
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("name is required");
+        }
+        if (name.length() > 255) {
+            throw new IllegalArgumentException("name is longer than 255 characters");
+        }
+        if (dto.getDescription() != null && dto.getDescription().length() > 1000) {
+            throw new IllegalArgumentException("description is longer than 1000 characters");
+        }
+        if (dto.getImageUrl() != null && dto.getImageUrl().length() > 500) {
+            throw new IllegalArgumentException("imageUrl is longer than 500 characters");
+        }
+        return Food.builder()
+                .name(name)
+                .calories(nonNegative(dto.getCalories(), "calories"))
+                .protein(nonNegative(dto.getProtein(), "protein"))
+                .carbs(nonNegative(dto.getCarbs(), "carbs"))
+                .fat(nonNegative(dto.getFat(), "fat"))
+                .fiber(dto.getFiber() == null ? 0.0 : nonNegative(dto.getFiber(), "fiber"))
+                .category(dto.getCategory() != null ? dto.getCategory() : FoodCategory.OTHER)
+                .description(dto.getDescription())
+                .imageUrl(dto.getImageUrl())
+                .isActive(dto.getIsActive() == null || dto.getIsActive())
+                .build();
+    }
+
+    private static Double nonNegative(Double value, String field) {
+        if (value == null) {
+            throw new IllegalArgumentException(field + " is required");
+        }
+        if (value < 0 || value.isNaN() || value.isInfinite()) {
+            throw new IllegalArgumentException(field + " must be a non-negative number");
+        }
+        return value;
+    }
+
+    private static Double number(String value, String field) {
+        try {
+            return Double.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(field + " is not a number: " + value);
+        }
+    }
+
+    private static FoodCategory category(String value) {
+        try {
+            return FoodCategory.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("unknown category: " + value);
+        }
+    }
+
+    // Splits one CSV record; supports quoted fields with commas and "" escapes (not embedded newlines)
+    static String[] parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields.toArray(new String[0]);
+    }
+
+    private static double rate(long rows, long elapsedMs) {
+        return elapsedMs == 0 ? rows : rows * 1000.0 / elapsedMs;
+    }
+
+    private static final class Progress {
+        long rowsRead;
+        long inserted;
+        long duplicates;
+        long invalid;
+        final List<String> errors = new ArrayList<>();
+
+        void error(String message) {
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(message);
+            }
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.fitnessapp.fitness_api.service;
+
+import com.fitnessapp.fitness_api.dto.DailyNutritionDto;
+import com.fitnessapp.fitness_api.dto.FoodDto;
+import com.fitnessapp.fitness_api.entity.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ranks the whole catalog against what the user still needs today.
+ * Each food is scored per 100g by how much of the remaining protein, carb and fat
+ * gaps it fills, minus a penalty for calories beyond what is left. The scoring loop
+ * is a straight pass over the catalog's primitive columns using only Math.min/max,
+ * which C2 compiles to SIMD instructions, so a full re-rank is a few milliseconds
+ * even for very large catalogs.
+ */
+@Service
+@RequiredArgsConstructor
+public class FoodRecommendationEngine {
+
+    private static final double DEFAULT_TARGET_CALORIES = 2000.0;
+    private static final double OVERSHOOT_PENALTY = 2.0;
+
+    private final FoodService foodService;
+    private final MealService mealService;
+
+    public List<FoodDto> recommend(User user, LocalDate date, int limit) {
+        DailyNutritionDto eaten = mealService.getDailyNutrition(user, date);
+        double targetCalories = user.getDailyCalorieTarget() != null
+                ? user.getDailyCalorieTarget()
+                : DEFAULT_TARGET_CALORIES;
+        MacroSplit split = MacroSplit.of(user.getGoal());
+
+        double remainingCalories = Math.max(0, targetCalories - eaten.getTotalCalories());
+        double proteinGap = Math.max(0, split.proteinGrams(targetCalories) - eaten.getTotalProtein());
+        double carbsGap = Math.max(0, split.carbsGrams(targetCalories) - eaten.getTotalCarbs());
+        double fatGap = Math.max(0, split.fatGrams(targetCalories) - eaten.getTotalFat());
+
+        FoodCatalog.Snapshot catalog = foodService.catalog();
+        double[] scores = score(catalog.caloriesColumn(), catalog.proteinColumn(), catalog.carbsColumn(),
+                catalog.fatColumn(), remainingCalories, proteinGap, carbsGap, fatGap);
+
+        int[] best = topK(scores, Math.min(limit, scores.length));
+        List<FoodDto> result = new ArrayList<>(best.length);
+        for (int position : best) {
+            result.add(catalog.at(position));
+        }
+        return result;
+    }
+
+    static double[] score(double[] calories, double[] protein, double[] carbs, double[] fat,
+                          double remainingCalories, double proteinGap, double carbsGap, double fatGap) {
+        // A closed gap gets weight 0, so it neither helps nor hurts
+        double wProtein = proteinGap > 0 ? 1.0 / proteinGap : 0.0;
+        double wCarbs = carbsGap > 0 ? 1.0 / carbsGap : 0.0;
+        double wFat = fatGap > 0 ? 1.0 / fatGap : 0.0;
+        double wOver = OVERSHOOT_PENALTY / Math.max(remainingCalories, 100.0);
+
+        int n = calories.length;
+        double[] scores = new double[n];
+        for (int i = 0; i < n; i++) {
+            double fill = Math.min(protein[i], proteinGap) * wProtein
+                    + Math.min(carbs[i], carbsGap) * wCarbs
+                    + Math.min(fat[i], fatGap) * wFat;
+            double over = Math.max(calories[i] - remainingCalories, 0.0) * wOver;
+            scores[i] = fill - over;
+        }
+        return scores;
+    }
+
+    // Positions of the k highest scores, best first, using a primitive min-heap
+    static int[] topK(double[] scores, int k) {
+        if (k <= 0) {
+            return new int[0];
+        }
+        int[] heap = new int[k];
+        int size = 0;
+        for (int i = 0; i < scores.length; i++) {
+            if (size < k) {
+                heap[size] = i;
+                siftUp(heap, size++, scores);
+            } else if (scores[i] > scores[heap[0]]) {
+                heap[0] = i;
+                siftDown(heap, size, scores);
+            }
+        }
+        int[] result = new int[size];
+        for (int i = size - 1; i >= 0; i--) {
+            result[i] = heap[0];
+            heap[0] = heap[--size];
+            siftDown(heap, size, scores);
+        }
+        return result;
+    }
+
+    private static void siftUp(int[] heap, int index, double[] scores) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (scores[heap[index]] >= scores[heap[parent]]) {
+                return;
+            }
+            swap(heap, index, parent);
+            index = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, int size, double[] scores) {
+        int index = 0;
+        while (true) {
+            int left = 2 * index + 1;
+            if (left >= size) {
+                return;
+            }
+            int smallest = left + 1 < size && scores[heap[left + 1]] < scores[heap[left]] ? left + 1 : left;
+            if (scores[heap[index]] <= scores[heap[smallest]]) {
+                return;
+            }
+            swap(heap, index, smallest);
+            index = smallest;
+        }
+    }
+
+    private static void swap(int[] heap, int a, int b) {
+        int tmp = heap[a];
+        heap[a] = heap[b];
+        heap[b] = tmp;
+    }
+}
@@ -0,0 +1,323 @@
+package com.fitnessapp.fitness_api.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongConsumer;
+
+/**
+ * In-memory search index over active food names.
+ * Names are split into lowercase words. A sorted word dictionary answers prefix
+ * (typeahead) lookups, and a trigram index over the dictionary answers substring
+ * and typo-tolerant lookups. Every query word must match some word of the name.
+ * FoodService keeps it in step with its writes, the same way as FoodCatalog.
+ */
+@Component
+public class FoodSearchIndex {
+
+    public enum Mode {
+        CONTAINS, // each query word appears inside a word of the name
+        PREFIX,   // each query word starts a word of the name (typeahead)
+        FUZZY     // like PREFIX, but also accepts words within a small edit distance
+    }
+
+    private static final double EXACT = 1.0;
+    private static final double PREFIX = 0.8;
+    private static final double SUBSTRING = 0.6;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // food id -> normalized name
+    private final Map<Long, String> names = new HashMap<>();
+    // word -> ids of foods whose name contains it
+    private final TreeMap<String, LongSet> postings = new TreeMap<>();
+    // trigram of "^word$" -> words containing it
+    private final Map<String, Set<String>> wordsByTrigram = new HashMap<>();
+
+    public void rebuild(Map<Long, String> foods) {
+        lock.writeLock().lock();
+        try {
+            names.clear();
+            postings.clear();
+            wordsByTrigram.clear();
+            foods.forEach(this::addUnlocked);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void put(Long id, String name) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(id);
+            addUnlocked(id, name);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of the best matching foods, best first.
+     * Ranking: sum of per-word match quality, then shorter names, then alphabetical.
+     */
+    public List<Long> search(String query, Mode mode, int limit) {
+        String[] queryWords = words(query);
+        if (queryWords.length == 0 || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = null;
+            for (String queryWord : queryWords) {
+                Map<Long, Double> wordScores = new HashMap<>();
+                matchWords(queryWord, mode).forEach((word, score) ->
+                        postings.get(word).forEach(id -> wordScores.merge(id, score, Double::max)));
+
+                if (scores == null) {
+                    scores = wordScores;
+                } else {
+                    Map<Long, Double> previous = scores;
+                    scores = new HashMap<>();
+                    for (Map.Entry<Long, Double> e : wordScores.entrySet()) {
+                        Double before = previous.get(e.getKey());
+                        if (before != null) {
+                            scores.put(e.getKey(), before + e.getValue());
+                        }
+                    }
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            String whole = String.join(" ", queryWords);
+            Comparator<Map.Entry<Long, Double>> ranking = Comparator
+                    .comparingDouble((Map.Entry<Long, Double> e) ->
+                            e.getValue() + (names.get(e.getKey()).startsWith(whole) ? 0.5 : 0.0))
+                    .thenComparing(e -> -names.get(e.getKey()).length())
+                    .thenComparing(e -> names.get(e.getKey()), Comparator.reverseOrder());
+
+            // Min-heap of the best `limit` entries
+            PriorityQueue<Map.Entry<Long, Double>> top = new PriorityQueue<>(limit + 1, ranking);
+            for (Map.Entry<Long, Double> e : scores.entrySet()) {
+                top.add(e);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+            List<Long> result = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                result.add(top.poll().getKey());
+            }
+            Collections.reverse(result);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Dictionary words matching one query word, with their match quality
+    private Map<String, Double> matchWords(String queryWord, Mode mode) {
+        Map<String, Double> matches = new HashMap<>();
+
+        if (postings.containsKey(queryWord)) {
+            matches.put(queryWord, EXACT);
+        }
+        postings.subMap(queryWord, false, queryWord + Character.MAX_VALUE, false)
+                .keySet()
+                .forEach(word -> matches.putIfAbsent(word, PREFIX));
+
+        if (mode == Mode.CONTAINS && queryWord.length() >= 3) {
+            for (String word : candidates(trigrams(queryWord, false), 0)) {
+                if (word.contains(queryWord)) {
+                    matches.putIfAbsent(word, SUBSTRING);
+                }
+            }
+        }
+
+        if (mode == Mode.FUZZY) {
+            int maxEdits = queryWord.length() <= 4 ? 1 : 2;
+            List<String> grams = trigrams(queryWord, true);
+            // Each edit can destroy at most three trigrams
+            int minShared = Math.max(1, grams.size() - 3 * maxEdits);
+            for (String word : candidates(grams, minShared)) {
+                if (matches.containsKey(word) || Math.abs(word.length() - queryWord.length()) > maxEdits) {
+                    continue;
+                }
+                int distance = boundedEditDistance(queryWord, word, maxEdits);
+                if (distance <= maxEdits) {
+                    matches.put(word, 0.7 - 0.2 * distance);
+                }
+            }
+        }
+        return matches;
+    }
+
+    // Words sharing at least minShared of the grams (all of them when minShared is 0)
+    private Set<String> candidates(List<String> grams, int minShared) {
+        if (grams.isEmpty()) {
+            return Set.of();
+        }
+        Map<String, Integer> shared = new HashMap<>();
+        for (String gram : grams) {
+            for (String word : wordsByTrigram.getOrDefault(gram, Set.of())) {
+                shared.merge(word, 1, Integer::sum);
+            }
+        }
+        int required = minShared == 0 ? grams.size() : minShared;
+        Set<String> result = new HashSet<>();
+        shared.forEach((word, count) -> {
+            if (count >= required) {
+                result.add(word);
+            }
+        });
+        return result;
+    }
+
+    private void addUnlocked(Long id, String name) {
+        String normalized = String.join(" ", words(name));
+        names.put(id, normalized);
+        for (String word : new HashSet<>(Arrays.asList(words(name)))) {
+            LongSet ids = postings.get(word);
+            if (ids == null) {
+                ids = new LongSet();
+                postings.put(word, ids);
+                for (String gram : trigrams(word, true)) {
+                    wordsByTrigram.computeIfAbsent(gram, g -> new HashSet<>()).add(word);
+                }
+            }
+            ids.add(id);
+        }
+    }
+
+    private void removeUnlocked(Long id) {
+        String old = names.remove(id);
+        if (old == null) {
+            return;
+        }
+        for (String word : new HashSet<>(Arrays.asList(words(old)))) {
+            LongSet ids = postings.get(word);
+            if (ids == null) {
+                continue;
+            }
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                postings.remove(word);
+                for (String gram : trigrams(word, true)) {
+                    Set<String> words = wordsByTrigram.get(gram);
+                    if (words != null) {
+                        words.remove(word);
+                        if (words.isEmpty()) {
+                            wordsByTrigram.remove(gram);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static String[] words(String text) {
+        if (text == null) {
+            return new String[0];
+        }
+        String normalized = text.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+        return normalized.isEmpty() ? new String[0] : normalized.split(" ");
+    }
+
+    private static List<String> trigrams(String word, boolean padded) {
+        String s = padded ? "^" + word + "$" : word;
+        List<String> grams = new ArrayList<>(Math.max(0, s.length() - 2));
+        for (int i = 0; i + 3 <= s.length(); i++) {
+            grams.add(s.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    // Levenshtein distance, giving up (returning max + 1) once it must exceed max
+    static int boundedEditDistance(String a, String b, int max) {
+        int[] prev = new int[b.length() + 1];
+        int[] curr = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            prev[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            curr[0] = i;
+            int rowMin = curr[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                curr[j] = Math.min(Math.min(curr[j - 1] + 1, prev[j] + 1), prev[j - 1] + cost);
+                rowMin = Math.min(rowMin, curr[j]);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] tmp = prev;
+            prev = curr;
+            curr = tmp;
+        }
+        return prev[b.length()];
+    }
+
+    // Sorted, growable set of primitive longs; posting lists are mostly tiny
+    private static final class LongSet {
+
+        private long[] values = new long[2];
+        private int size;
+
+        void add(long value) {
+            int pos = Arrays.binarySearch(values, 0, size, value);
+            if (pos >= 0) {
+                return;
+            }
+            pos = -pos - 1;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            System.arraycopy(values, pos, values, pos + 1, size - pos);
+            values[pos] = value;
+            size++;
+        }
+
+        void remove(long value) {
+            int pos = Arrays.binarySearch(values, 0, size, value);
+            if (pos < 0) {
+                return;
+            }
+            System.arraycopy(values, pos + 1, values, pos, size - pos - 1);
+            size--;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void forEach(LongConsumer action) {
+            for (int i = 0; i < size; i++) {
+                action.accept(values[i]);
+            }
+        }
+    }
+}
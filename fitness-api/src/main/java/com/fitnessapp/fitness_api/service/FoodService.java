@@ -6,9 +6,12 @@ import com.fitnessapp.fitness_api.entity.FoodCategory;
 import com.fitnessapp.fitness_api.entity.GoalType;
 import com.fitnessapp.fitness_api.repository.FoodRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
@@ -16,64 +19,77 @@ import java.util.stream.Collectors;
 public class FoodService {
     
     private final FoodRepository foodRepository;
+    private final FoodCatalog foodCatalog;
+    private final FoodSearchIndex foodSearchIndex;
     
-    public List<FoodDto> getAllFoods() {
-        return foodRepository.findByIsActiveTrue()
+    // Load the catalog once the startup runners (sample data) have finished
+    @EventListener(ApplicationReadyEvent.class)
+    public void reloadCatalog() {
+        List<FoodDto> foods = foodRepository.findByIsActiveTrue()
                 .stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
+        foodCatalog.replaceAll(foods);
+        foodSearchIndex.rebuild(foods.stream()
+                .collect(Collectors.toMap(FoodDto::getId, FoodDto::getName)));
+    }
+    
+    FoodCatalog.Snapshot catalog() {
+        if (!foodCatalog.isLoaded()) {
+            reloadCatalog();
+        }
+        return foodCatalog.snapshot();
+    }
+    
+    // Bumped on every catalog change; used to tag cached responses
+    public long getCatalogVersion() {
+        return catalog().version();
+    }
+    
+    public List<FoodDto> getAllFoods() {
+        return catalog().all();
     }
     
     public List<FoodDto> searchFoods(String name) {
-        return foodRepository.findByNameContainingIgnoreCase(name)
+        return searchFoods(name, FoodSearchIndex.Mode.CONTAINS, 50);
+    }
+    
+    public List<FoodDto> searchFoods(String name, FoodSearchIndex.Mode mode, int limit) {
+        FoodCatalog.Snapshot catalog = catalog();
+        return foodSearchIndex.search(name, mode, limit)
                 .stream()
-                .map(this::convertToDto)
+                .map(catalog::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
     
     public List<FoodDto> getFoodsByCategory(FoodCategory category) {
-        return foodRepository.findByCategoryAndIsActiveTrue(category)
-                .stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return catalog().byCategory(category);
     }
     
     public List<FoodDto> getRecommendedFoods(GoalType goalType) {
-        List<Food> foods;
+        FoodCatalog.Snapshot catalog = catalog();
         
         switch (goalType) {
             case LOSS:
                 // Low calorie, high protein foods for weight loss
-                foods = foodRepository.findLowCalorieFoods(200.0);
-                break;
+                return catalog.caloriesAtMost(200.0);
             case GAIN:
                 // High calorie, high protein foods for weight gain
-                foods = foodRepository.findHighProteinFoods(15.0);
-                break;
+                return catalog.proteinAtLeast(15.0);
             case MAINTAIN:
             default:
                 // Balanced foods for maintenance
-                foods = foodRepository.findByIsActiveTrue();
-                break;
+                return catalog.all();
         }
-        
-        return foods.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
     }
     
     public List<FoodDto> getHighProteinFoods() {
-        return foodRepository.findHighProteinFoods(15.0)
-                .stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return catalog().proteinAtLeast(15.0);
     }
     
     public List<FoodDto> getLowCalorieFoods() {
-        return foodRepository.findLowCalorieFoods(150.0)
-                .stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return catalog().caloriesAtMost(150.0);
     }
     
     public FoodDto getFoodById(Long id) {
@@ -86,7 +102,10 @@ public class FoodService {
         Food food = convertToEntity(foodDto);
         food.setIsActive(true);
         Food savedFood = foodRepository.save(food);
-        return convertToDto(savedFood);
+        FoodDto saved = convertToDto(savedFood);
+        foodCatalog.upsert(saved);
+        foodSearchIndex.put(saved.getId(), saved.getName());
+        return saved;
     }
     
     public FoodDto updateFood(Long id, FoodDto foodDto) {
@@ -104,7 +123,14 @@ public class FoodService {
                     existingFood.setIsActive(foodDto.getIsActive());
                     
                     Food savedFood = foodRepository.save(existingFood);
-                    return convertToDto(savedFood);
+                    FoodDto saved = convertToDto(savedFood);
+                    foodCatalog.upsert(saved);
+                    if (Boolean.TRUE.equals(saved.getIsActive())) {
+                        foodSearchIndex.put(saved.getId(), saved.getName());
+                    } else {
+                        foodSearchIndex.remove(saved.getId());
+                    }
+                    return saved;
                 })
                 .orElse(null);
     }
@@ -114,6 +140,8 @@ public class FoodService {
                 .ifPresent(food -> {
                     food.setIsActive(false);
                     foodRepository.save(food);
+                    foodCatalog.remove(id);
+                    foodSearchIndex.remove(id);
                 });
     }
     
@@ -0,0 +1,30 @@
+package com.fitnessapp.fitness_api.service;
+
+import com.fitnessapp.fitness_api.entity.GoalType;
+
+// Share of daily calories from protein / carbs / fat for a goal
+record MacroSplit(double protein, double carbs, double fat) {
+
+    static MacroSplit of(GoalType goal) {
+        if (goal == null) {
+            return new MacroSplit(0.25, 0.50, 0.25);
+        }
+        return switch (goal) {
+            case LOSS -> new MacroSplit(0.35, 0.35, 0.30);
+            case GAIN -> new MacroSplit(0.30, 0.45, 0.25);
+            case MAINTAIN -> new MacroSplit(0.25, 0.50, 0.25);
+        };
+    }
+
+    double proteinGrams(double calories) {
+        return calories * protein / 4;
+    }
+
+    double carbsGrams(double calories) {
+        return calories * carbs / 4;
+    }
+
+    double fatGrams(double calories) {
+        return calories * fat / 9;
+    }
+}
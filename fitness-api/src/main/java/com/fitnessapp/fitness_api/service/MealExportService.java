@@ -0,0 +1,164 @@
+package com.fitnessapp.fitness_api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fitnessapp.fitness_api.dto.MealDto;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams a user's whole meal history as CSV or NDJSON in constant memory.
+ * Rows are read in keyset chunks on (meal_date, id); each chunk is one short read-only
+ * transaction over a forward-only cursor with a fixed fetch size, and is written to the
+ * client only after the transaction ends. A slow client therefore never pins a database
+ * connection, and at most one chunk is on the heap. The export covers committed meals with a
+ * meal date: meals still queued by MealWriteBehind and legacy rows without a meal_date are
+ * not included.
+ */
+@Slf4j
+@Service
+public class MealExportService {
+
+    public enum Format { CSV, NDJSON }
+
+    private static final String CSV_HEADER =
+            "id,mealDate,mealType,foodId,foodName,quantity,calories,protein,carbs,fat,fiber,createdAt";
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final int fetchSize;
+
+    public MealExportService(EntityManager entityManager,
+                             PlatformTransactionManager transactionManager,
+                             ObjectMapper objectMapper,
+                             @Value("${app.meals.export.chunk-size:5000}") int chunkSize,
+                             @Value("${app.meals.export.fetch-size:500}") int fetchSize,
+                             @Value("${app.meals.export.chunk-timeout-seconds:10}") int chunkTimeoutSeconds) {
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.readOnlyTransaction.setTimeout(chunkTimeoutSeconds);
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+        this.fetchSize = fetchSize;
+    }
+
+    public void export(Long userId, Format format, boolean gzip, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        OutputStream target = gzip ? new GZIPOutputStream(out, 1 << 16) : out;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), 1 << 16);
+        if (format == Format.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        long rows = 0;
+        LocalDate afterDate = LocalDate.of(1, 1, 1);
+        long afterId = 0;
+        List<MealDto> chunk;
+        do {
+            chunk = readChunk(userId, afterDate, afterId);
+            for (MealDto meal : chunk) {
+                if (format == Format.CSV) {
+                    writeCsv(writer, meal);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(meal));
+                    writer.write('\n');
+                }
+            }
+            if (!chunk.isEmpty()) {
+                MealDto last = chunk.get(chunk.size() - 1);
+                afterDate = last.getMealDate();
+                afterId = last.getId();
+                rows += chunk.size();
+                writer.flush();
+            }
+        } while (chunk.size() == chunkSize);
+
+        writer.flush();
+        if (target instanceof GZIPOutputStream gz) {
+            gz.finish();
+        }
+        log.info("Exported {} meals for user {} as {} in {} ms",
+                rows, userId, format, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private List<MealDto> readChunk(Long userId, LocalDate afterDate, long afterId) {
+        return readOnlyTransaction.execute(status -> {
+            List<MealDto> chunk = new ArrayList<>(chunkSize);
+            try (Stream<MealDto> rows = entityManager.createQuery(
+                            "SELECT new com.fitnessapp.fitness_api.dto.MealDto(" +
+                            "m.id, m.user.id, m.food.id, m.foodName, m.mealType, m.quantity, m.calories, m.protein, " +
+                            "m.carbs, m.fat, m.fiber, m.mealDate, m.createdAt) " +
+                            "FROM Meal m WHERE m.user.id = :userId AND m.mealDate IS NOT NULL " +
+                            "AND (m.mealDate > :afterDate OR (m.mealDate = :afterDate AND m.id > :afterId)) " +
+                            "ORDER BY m.mealDate, m.id", MealDto.class)
+                    .setParameter("userId", userId)
+                    .setParameter("afterDate", afterDate)
+                    .setParameter("afterId", afterId)
+                    .setMaxResults(chunkSize)
+                    .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                    .setHint(HibernateHints.HINT_READ_ONLY, true)
+                    .getResultStream()) {
+                rows.forEach(chunk::add);
+            }
+            return chunk;
+        });
+    }
+
+    private static void writeCsv(Writer writer, MealDto meal) throws IOException {
+        writer.write(String.valueOf(meal.getId()));
+        writer.write(',');
+        writer.write(String.valueOf(meal.getMealDate()));
+        writer.write(',');
+        writer.write(meal.getMealType() == null ? "" : meal.getMealType().name());
+        writer.write(',');
+        writer.write(meal.getFoodId() == null ? "" : meal.getFoodId().toString());
+        writer.write(',');
+        writer.write(csvField(meal.getFoodName()));
+        writer.write(',');
+        writer.write(String.valueOf(meal.getQuantity()));
+        writer.write(',');
+        writer.write(String.valueOf(meal.getCalories()));
+        writer.write(',');
+        writer.write(String.valueOf(meal.getProtein()));
+        writer.write(',');
+        writer.write(String.valueOf(meal.getCarbs()));
+        writer.write(',');
+        writer.write(String.valueOf(meal.getFat()));
+        writer.write(',');
+        writer.write(String.valueOf(meal.getFiber()));
+        writer.write(',');
+        writer.write(meal.getCreatedAt() == null ? "" : meal.getCreatedAt().toString());
+        writer.write('\n');
+    }
+
+    // Quotes a field when needed, doubling embedded quotes (same dialect FoodImportService reads)
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
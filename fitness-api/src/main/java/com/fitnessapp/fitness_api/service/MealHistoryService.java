@@ -0,0 +1,114 @@
+package com.fitnessapp.fitness_api.service;
+
+import com.fitnessapp.fitness_api.dto.MealDto;
+import com.fitnessapp.fitness_api.dto.MealHistoryRequest;
+import com.fitnessapp.fitness_api.dto.MealPageDto;
+import com.fitnessapp.fitness_api.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Filtered meal history, newest first, with keyset pagination on (meal_date, id).
+ * Each page is one index range scan on (user_id, meal_date, id) that selects straight into
+ * MealDto, so no Meal, User or Food entities are loaded and deep pages cost the same as
+ * the first. The cursor is "date:id" of the last row returned.
+ */
+@Service
+public class MealHistoryService {
+
+    private final EntityManager entityManager;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    public MealHistoryService(EntityManager entityManager,
+                              @Value("${app.meals.history.default-page-size:50}") int defaultPageSize,
+                              @Value("${app.meals.history.max-page-size:200}") int maxPageSize) {
+        this.entityManager = entityManager;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    @Transactional(readOnly = true)
+    public MealPageDto history(User user, MealHistoryRequest request) {
+        int size = request.getSize() == null ? defaultPageSize : Math.max(1, Math.min(request.getSize(), maxPageSize));
+
+        StringBuilder jpql = new StringBuilder(
+                "SELECT new com.fitnessapp.fitness_api.dto.MealDto(" +
+                "m.id, m.user.id, m.food.id, m.foodName, m.mealType, m.quantity, m.calories, m.protein, " +
+                "m.carbs, m.fat, m.fiber, m.mealDate, m.createdAt) " +
+                "FROM Meal m WHERE m.user.id = :userId");
+        Map<String, Object> params = new HashMap<>();
+        params.put("userId", user.getId());
+
+        if (request.getFrom() != null) {
+            jpql.append(" AND m.mealDate >= :from");
+            params.put("from", request.getFrom());
+        }
+        if (request.getTo() != null) {
+            jpql.append(" AND m.mealDate <= :to");
+            params.put("to", request.getTo());
+        }
+        if (request.getMealType() != null) {
+            jpql.append(" AND m.mealType = :mealType");
+            params.put("mealType", request.getMealType());
+        }
+        if (request.getFoodId() != null) {
+            jpql.append(" AND m.food.id = :foodId");
+            params.put("foodId", request.getFoodId());
+        }
+        if (request.getMinCalories() != null) {
+            jpql.append(" AND m.calories >= :minCalories");
+            params.put("minCalories", request.getMinCalories());
+        }
+        if (request.getMaxCalories() != null) {
+            jpql.append(" AND m.calories <= :maxCalories");
+            params.put("maxCalories", request.getMaxCalories());
+        }
+        if (request.getCursor() != null && !request.getCursor().isBlank()) {
+            Cursor cursor = Cursor.parse(request.getCursor());
+            jpql.append(" AND (m.mealDate < :cursorDate OR (m.mealDate = :cursorDate AND m.id < :cursorId))");
+            params.put("cursorDate", cursor.date());
+            params.put("cursorId", cursor.id());
+        }
+        jpql.append(" ORDER BY m.mealDate DESC, m.id DESC");
+
+        TypedQuery<MealDto> query = entityManager.createQuery(jpql.toString(), MealDto.class);
+        params.forEach(query::setParameter);
+        // One extra row tells us whether another page exists
+        List<MealDto> rows = query.setMaxResults(size + 1).getResultList();
+
+        boolean hasMore = rows.size() > size;
+        List<MealDto> content = hasMore ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            MealDto last = content.get(content.size() - 1);
+            nextCursor = last.getMealDate() + ":" + last.getId();
+        }
+        return MealPageDto.builder()
+                .content(content)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    private record Cursor(LocalDate date, Long id) {
+
+        static Cursor parse(String value) {
+            int sep = value.lastIndexOf(':');
+            try {
+                return new Cursor(LocalDate.parse(value.substring(0, sep)), Long.valueOf(value.substring(sep + 1)));
+            } catch (DateTimeParseException | NumberFormatException | IndexOutOfBoundsException e) {
+                throw new RuntimeException("Invalid cursor: " + value);
+            }
+        }
+    }
+}
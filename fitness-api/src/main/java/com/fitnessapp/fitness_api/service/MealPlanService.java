@@ -0,0 +1,345 @@
+package com.fitnessapp.fitness_api.service;
+
+import com.fitnessapp.fitness_api.dto.FoodDto;
+import com.fitnessapp.fitness_api.dto.MealPlanDto;
+import com.fitnessapp.fitness_api.dto.MealPlanItemDto;
+import com.fitnessapp.fitness_api.entity.GoalType;
+import com.fitnessapp.fitness_api.entity.MealType;
+import com.fitnessapp.fitness_api.entity.User;
+import com.fitnessapp.fitness_api.exception.ServiceBusyException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds a one-day meal plan (one or two foods per meal slot, in 50 g portion steps)
+ * that lands close to the user's calorie target and the macro split for their goal.
+ *
+ * The search is a simulated-annealing local search run from several random starts
+ * in parallel on a dedicated fork-join pool. Each request is bounded in time (every
+ * start stops at the deadline), in memory (the candidate pool is capped), and in
+ * concurrency (a few plans at a time; beyond that callers get ServiceBusyException).
+ * Plans are cached per (target, goal, slots, tolerance, catalog version).
+ */
+@Service
+public class MealPlanService {
+
+    private static final double DEFAULT_TARGET_CALORIES = 2000.0;
+    private static final int ITEMS_PER_SLOT = 2;
+    private static final double[] PORTIONS = {0, 50, 100, 150, 200, 250, 300}; // grams; 0 = item unused
+    private static final int MAX_ITERATIONS = 50_000;
+    private static final double MAX_TOLERANCE = 0.5; // share of the calorie target
+
+    private static final Map<MealType, Double> SLOT_SHARE = new EnumMap<>(Map.of(
+            MealType.BREAKFAST, 0.25,
+            MealType.LUNCH, 0.35,
+            MealType.DINNER, 0.30,
+            MealType.SNACK, 0.10
+    ));
+
+    private final FoodService foodService;
+    private final ForkJoinPool pool;
+    private final Semaphore permits;
+    private final long timeBudgetMs;
+    private final int maxCandidates;
+    private final int restarts;
+    private final int cacheSize;
+    private final Map<PlanKey, MealPlanDto> cache = new ConcurrentHashMap<>();
+
+    public MealPlanService(FoodService foodService,
+                           @Value("${app.meal-plan.parallelism:0}") int parallelism,
+                           @Value("${app.meal-plan.max-concurrent:2}") int maxConcurrent,
+                           @Value("${app.meal-plan.time-budget-ms:200}") long timeBudgetMs,
+                           @Value("${app.meal-plan.max-candidates:400}") int maxCandidates,
+                           @Value("${app.meal-plan.restarts:8}") int restarts,
+                           @Value("${app.meal-plan.cache-size:1000}") int cacheSize) {
+        this.foodService = foodService;
+        this.pool = new ForkJoinPool(parallelism > 0
+                ? parallelism
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+        this.permits = new Semaphore(maxConcurrent);
+        this.timeBudgetMs = timeBudgetMs;
+        this.maxCandidates = maxCandidates;
+        this.restarts = restarts;
+        this.cacheSize = cacheSize;
+    }
+
+    public MealPlanDto plan(User user, List<MealType> requestedSlots, double tolerance) {
+        // Also rejects NaN; a wider tolerance would make any pick of foods count as on target
+        if (!(tolerance >= 0 && tolerance <= MAX_TOLERANCE)) {
+            throw new RuntimeException("tolerance must be between 0 and " + MAX_TOLERANCE);
+        }
+        double targetCalories = user.getDailyCalorieTarget() != null && user.getDailyCalorieTarget() > 0
+                ? user.getDailyCalorieTarget()
+                : DEFAULT_TARGET_CALORIES;
+        GoalType goal = user.getGoal();
+        List<MealType> slots = (requestedSlots == null || requestedSlots.isEmpty())
+                ? List.of(MealType.values())
+                : requestedSlots.stream().distinct().sorted().toList();
+
+        FoodCatalog.Snapshot catalog = foodService.catalog();
+        if (catalog.size() == 0) {
+            throw new RuntimeException("No foods available to plan with");
+        }
+
+        PlanKey key = new PlanKey((int) targetCalories, goal, slots, tolerance, catalog.version());
+        MealPlanDto cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        if (!permits.tryAcquire()) {
+            throw new ServiceBusyException("Meal planner is busy, please retry shortly");
+        }
+        MealPlanDto plan;
+        try {
+            plan = search(catalog, targetCalories, goal, slots, tolerance);
+        } finally {
+            permits.release();
+        }
+
+        if (cache.size() >= cacheSize) {
+            cache.clear();
+        }
+        cache.put(key, plan);
+        return plan;
+    }
+
+    private MealPlanDto search(FoodCatalog.Snapshot catalog, double targetCalories, GoalType goal,
+                               List<MealType> slots, double tolerance) {
+        MacroSplit split = MacroSplit.of(goal);
+        double[] targets = {
+                targetCalories,
+                split.proteinGrams(targetCalories),
+                split.carbsGrams(targetCalories),
+                split.fatGrams(targetCalories)
+        };
+        double shareSum = slots.stream().mapToDouble(SLOT_SHARE::get).sum();
+        double[] slotCalories = slots.stream()
+                .mapToDouble(s -> targetCalories * SLOT_SHARE.get(s) / shareSum)
+                .toArray();
+
+        // Evenly spaced over the calorie ordering, so the pool covers light to dense foods
+        int[] ordered = catalog.caloriesAscending();
+        int poolSize = Math.min(ordered.length, maxCandidates);
+        int[] candidates = new int[poolSize];
+        double[] cal = new double[poolSize];
+        double[] protein = new double[poolSize];
+        double[] carbs = new double[poolSize];
+        double[] fat = new double[poolSize];
+        for (int i = 0; i < poolSize; i++) {
+            int position = ordered[(int) ((long) i * ordered.length / poolSize)];
+            candidates[i] = position;
+            cal[i] = catalog.caloriesColumn()[position];
+            protein[i] = catalog.proteinColumn()[position];
+            carbs[i] = catalog.carbsColumn()[position];
+            fat[i] = catalog.fatColumn()[position];
+        }
+
+        Problem problem = new Problem(cal, protein, carbs, fat, slots.size(), slotCalories, targets, tolerance);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeBudgetMs);
+
+        List<Callable<Solution>> tasks = new ArrayList<>(restarts);
+        for (int r = 0; r < restarts; r++) {
+            long seed = 0x9E3779B97F4A7C15L * (r + 1);
+            tasks.add(() -> localSearch(problem, seed, deadline));
+        }
+
+        Solution best = null;
+        try {
+            for (Future<Solution> future : pool.invokeAll(tasks, timeBudgetMs * 2, TimeUnit.MILLISECONDS)) {
+                try {
+                    Solution s = future.get();
+                    if (best == null || s.cost < best.cost) {
+                        best = s;
+                    }
+                } catch (CancellationException | ExecutionException e) {
+                    // A start that overran its budget or failed is simply ignored
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (best == null) {
+            throw new ServiceBusyException("Could not build a meal plan in time, please retry");
+        }
+        return toDto(best, problem, catalog, candidates, slots, goal);
+    }
+
+    private static Solution localSearch(Problem problem, long seed, long deadline) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int items = problem.slots() * ITEMS_PER_SLOT;
+        int poolSize = problem.calories().length;
+
+        Solution current = new Solution(new int[items], new int[items]);
+        for (int k = 0; k < items; k++) {
+            current.food[k] = random.nextInt(poolSize);
+            current.portion[k] = 1 + random.nextInt(PORTIONS.length - 1);
+        }
+        current.cost = cost(problem, current);
+        Solution best = current.copy();
+
+        double temperature = 0.05;
+        for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+            if ((iteration & 255) == 0) {
+                if (System.nanoTime() > deadline || withinTolerance(problem, best)) {
+                    break;
+                }
+            }
+
+            int k = random.nextInt(items);
+            int oldFood = current.food[k];
+            int oldPortion = current.portion[k];
+            if (random.nextBoolean()) {
+                current.food[k] = random.nextInt(poolSize);
+            } else {
+                int step = random.nextBoolean() ? 1 : -1;
+                current.portion[k] = Math.max(0, Math.min(PORTIONS.length - 1, oldPortion + step));
+            }
+
+            double next = cost(problem, current);
+            if (next < current.cost || random.nextDouble() < Math.exp((current.cost - next) / temperature)) {
+                current.cost = next;
+                if (next < best.cost) {
+                    best = current.copy();
+                }
+            } else {
+                current.food[k] = oldFood;
+                current.portion[k] = oldPortion;
+            }
+            temperature *= 0.9995;
+        }
+        return best;
+    }
+
+    // Squared relative error of the daily totals, plus a lighter term for each slot's calories
+    private static double cost(Problem problem, Solution solution) {
+        double[] totals = totals(problem, solution);
+        double cost = 0;
+        for (int s = 0; s < problem.slots(); s++) {
+            double slotCalories = 0;
+            for (int j = 0; j < ITEMS_PER_SLOT; j++) {
+                int k = s * ITEMS_PER_SLOT + j;
+                slotCalories += problem.calories()[solution.food[k]] * PORTIONS[solution.portion[k]] / 100.0;
+            }
+            double error = (slotCalories - problem.slotCalories()[s]) / problem.slotCalories()[s];
+            cost += 0.5 * error * error;
+        }
+        for (int m = 0; m < totals.length; m++) {
+            double error = (totals[m] - problem.targets()[m]) / problem.targets()[m];
+            cost += (m == 0 ? 2.0 : 1.0) * error * error;
+        }
+        return cost;
+    }
+
+    private static double[] totals(Problem problem, Solution solution) {
+        double[] totals = new double[4];
+        for (int k = 0; k < solution.food.length; k++) {
+            int food = solution.food[k];
+            double factor = PORTIONS[solution.portion[k]] / 100.0;
+            totals[0] += problem.calories()[food] * factor;
+            totals[1] += problem.protein()[food] * factor;
+            totals[2] += problem.carbs()[food] * factor;
+            totals[3] += problem.fat()[food] * factor;
+        }
+        return totals;
+    }
+
+    private static boolean withinTolerance(Problem problem, Solution solution) {
+        double[] totals = totals(problem, solution);
+        for (int m = 0; m < totals.length; m++) {
+            if (Math.abs(totals[m] - problem.targets()[m]) > problem.tolerance() * problem.targets()[m]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static MealPlanDto toDto(Solution solution, Problem problem, FoodCatalog.Snapshot catalog,
+                                     int[] candidates, List<MealType> slots, GoalType goal) {
+        List<MealPlanItemDto> items = new ArrayList<>();
+        for (int s = 0; s < slots.size(); s++) {
+            for (int j = 0; j < ITEMS_PER_SLOT; j++) {
+                int k = s * ITEMS_PER_SLOT + j;
+                double grams = PORTIONS[solution.portion[k]];
+                if (grams == 0) {
+                    continue;
+                }
+                FoodDto food = catalog.at(candidates[solution.food[k]]);
+                double factor = grams / 100.0;
+                items.add(MealPlanItemDto.builder()
+                        .mealType(slots.get(s))
+                        .foodId(food.getId())
+                        .foodName(food.getName())
+                        .quantity(grams)
+                        .calories(food.getCalories() * factor)
+                        .protein(food.getProtein() * factor)
+                        .carbs(food.getCarbs() * factor)
+                        .fat(food.getFat() * factor)
+                        .build());
+            }
+        }
+        items.sort(Comparator.comparing(MealPlanItemDto::getMealType));
+
+        double[] totals = totals(problem, solution);
+        double[] targets = problem.targets();
+        return MealPlanDto.builder()
+                .targetCalories(targets[0])
+                .targetProtein(targets[1])
+                .targetCarbs(targets[2])
+                .targetFat(targets[3])
+                .goal(goal)
+                .totalCalories(totals[0])
+                .totalProtein(totals[1])
+                .totalCarbs(totals[2])
+                .totalFat(totals[3])
+                .withinTolerance(withinTolerance(problem, solution))
+                .items(items)
+                .build();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private record Problem(double[] calories, double[] protein, double[] carbs, double[] fat,
+                           int slots, double[] slotCalories, double[] targets, double tolerance) {
+    }
+
+    private record PlanKey(int targetCalories, GoalType goal, List<MealType> slots,
+                           double tolerance, long catalogVersion) {
+    }
+
+    private static final class Solution {
+        final int[] food;
+        final int[] portion;
+        double cost;
+
+        Solution(int[] food, int[] portion) {
+            this.food = food;
+            this.portion = portion;
+        }
+
+        Solution copy() {
+            Solution copy = new Solution(food.clone(), portion.clone());
+            copy.cost = cost;
+            return copy;
+        }
+    }
+}
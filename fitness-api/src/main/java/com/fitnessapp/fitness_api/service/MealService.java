@@ -3,26 +3,51 @@ package com.fitnessapp.fitness_api.service;
 import com.fitnessapp.fitness_api.dto.MealRequest;
 import com.fitnessapp.fitness_api.dto.MealDto;
 import com.fitnessapp.fitness_api.dto.DailyNutritionDto;
+import com.fitnessapp.fitness_api.dto.MealBatchItemResult;
+import com.fitnessapp.fitness_api.dto.MealBatchResponse;
+import com.fitnessapp.fitness_api.dto.MealTypeNutritionDto;
 import com.fitnessapp.fitness_api.entity.User;
 import com.fitnessapp.fitness_api.entity.Meal;
 import com.fitnessapp.fitness_api.entity.Food;
+import com.fitnessapp.fitness_api.entity.MealType;
+import com.fitnessapp.fitness_api.entity.DailyNutritionSummary;
+import com.fitnessapp.fitness_api.entity.DailyNutritionSummaryId;
+import com.fitnessapp.fitness_api.repository.DailyNutritionSummaryRepository;
 import com.fitnessapp.fitness_api.repository.MealRepository;
 import com.fitnessapp.fitness_api.repository.FoodRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class MealService {
 
+    private static final int MAX_RANGE_DAYS = 366;
+    private static final int MAX_BATCH_SIZE = 500;
+
     private final MealRepository mealRepository;
     private final FoodRepository foodRepository;
+    private final DailyNutritionSummaryRepository summaryRepository;
+    private final NutritionRollupService nutritionRollupService;
+    private final NutritionRollupBackfill nutritionRollupBackfill;
+    private final MealWriteBehind mealWriteBehind;
+    private final QuickAddService quickAddService;
 
+    @Transactional
     public String addMeal(User user, MealRequest request) {
         Food food = null;
         if (request.getFoodId() != null) {
@@ -43,14 +68,36 @@ public class MealService {
         meal.calculateNutrition();
         
         mealRepository.save(meal);
+        addToSummary(user, meal);
+        Long foodId = food != null ? food.getId() : null;
+        afterCommit(() -> quickAddService.recordUse(user.getId(), foodId, meal.getMealDate()));
         
-        // Generate response message
+        return addedMessage("Meal added successfully! ", user, meal.getCalories());
+    }
+    
+    // Write-behind variant of addMeal: journaled and queued, committed shortly after by MealWriteBehind
+    public String queueMeal(User user, MealRequest request) {
+        if (request.getQuantity() == null) {
+            throw new RuntimeException("quantity is required");
+        }
+        MealWriteBehind.PendingMeal meal = mealWriteBehind.submit(user, request.getFoodId(), request.getFoodName(),
+                request.getMealType(), request.getQuantity(),
+                request.getMealDate() != null ? request.getMealDate() : LocalDate.now());
+        quickAddService.recordUse(user.getId(), meal.foodId(), meal.mealDate());
+        return addedMessage("Meal added successfully! ", user, meal.calories());
+    }
+    
+    public boolean isWriteBehindEnabled() {
+        return mealWriteBehind.isEnabled();
+    }
+    
+    private String addedMessage(String prefix, User user, double calories) {
         double totalCaloriesToday = getTotalCaloriesToday(user);
         double targetCalories = user.getDailyCalorieTarget() != null ? user.getDailyCalorieTarget() : 2000.0;
         
         StringBuilder message = new StringBuilder();
-        message.append("Meal added successfully! ");
-        message.append("Calories: ").append(meal.getCalories()).append(" cal");
+        message.append(prefix);
+        message.append("Calories: ").append(calories).append(" cal");
         message.append(" | Total today: ").append(totalCaloriesToday).append("/").append(targetCalories);
         
         if (totalCaloriesToday > targetCalories) {
@@ -63,29 +110,195 @@ public class MealService {
         return message.toString();
     }
 
+    // Logs many meals in one transaction: one IN query for the foods, batched inserts and
+    // one summary update per affected day. Invalid items are reported and skipped.
+    @Transactional
+    public MealBatchResponse addMeals(User user, List<MealRequest> requests) {
+        if (requests.size() > MAX_BATCH_SIZE) {
+            throw new RuntimeException("A batch can hold at most " + MAX_BATCH_SIZE + " meals");
+        }
+        
+        Set<Long> foodIds = new HashSet<>();
+        for (MealRequest request : requests) {
+            if (request != null && request.getFoodId() != null) {
+                foodIds.add(request.getFoodId());
+            }
+        }
+        Map<Long, Food> foods = new HashMap<>();
+        for (Food food : foodRepository.findAllById(foodIds)) {
+            foods.put(food.getId(), food);
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        List<MealBatchItemResult> results = new ArrayList<>(requests.size());
+        List<Meal> meals = new ArrayList<>(requests.size());
+        List<MealBatchItemResult> createdResults = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            MealRequest request = requests.get(i);
+            String error = validate(request, foods);
+            if (error != null) {
+                results.add(MealBatchItemResult.builder().index(i).created(false).error(error).build());
+                continue;
+            }
+            Meal meal = Meal.builder()
+                    .user(user)
+                    .food(request.getFoodId() != null ? foods.get(request.getFoodId()) : null)
+                    .mealType(request.getMealType())
+                    .foodName(request.getFoodName())
+                    .quantity(request.getQuantity())
+                    .mealDate(request.getMealDate() != null ? request.getMealDate() : LocalDate.now())
+                    .createdAt(now)
+                    .build();
+            meal.calculateNutrition();
+            meals.add(meal);
+            MealBatchItemResult result = MealBatchItemResult.builder().index(i).created(true).build();
+            createdResults.add(result);
+            results.add(result);
+        }
+        
+        mealRepository.saveAll(meals);
+        
+        // Sum per day first so each affected day, week and month is written once
+        Map<LocalDate, double[]> perDay = new HashMap<>();
+        for (int i = 0; i < meals.size(); i++) {
+            Meal meal = meals.get(i);
+            createdResults.get(i).setMealId(meal.getId());
+            createdResults.get(i).setCalories(meal.getCalories());
+            double[] totals = perDay.computeIfAbsent(meal.getMealDate(), d -> new double[6]);
+            totals[0] += meal.getCalories();
+            totals[1] += meal.getProtein();
+            totals[2] += meal.getCarbs();
+            totals[3] += meal.getFat();
+            totals[4] += meal.getFiber();
+            totals[5]++;
+        }
+        afterCommit(() -> meals.forEach(meal -> quickAddService.recordUse(user.getId(),
+                meal.getFood() != null ? meal.getFood().getId() : null, meal.getMealDate())));
+        perDay.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey()) // fixed lock order across concurrent batches
+                .forEach(e -> nutritionRollupService.applyDelta(user, e.getKey(), e.getValue()[0],
+                        e.getValue()[1], e.getValue()[2], e.getValue()[3], e.getValue()[4], (int) e.getValue()[5]));
+        
+        return MealBatchResponse.builder()
+                .created(meals.size())
+                .rejected(requests.size() - meals.size())
+                .results(results)
+                .build();
+    }
+    
+    private static String validate(MealRequest request, Map<Long, Food> foods) {
+        if (request == null) {
+            return "empty item";
+        }
+        if (request.getQuantity() == null || request.getQuantity() <= 0
+                || request.getQuantity().isNaN() || request.getQuantity().isInfinite()) {
+            return "quantity must be a positive number";
+        }
+        if (request.getMealType() == null) {
+            return "mealType is required";
+        }
+        if (request.getFoodId() != null && !foods.containsKey(request.getFoodId())) {
+            return "food " + request.getFoodId() + " not found";
+        }
+        if (request.getFoodId() == null && (request.getFoodName() == null || request.getFoodName().isBlank())) {
+            return "foodId or foodName is required";
+        }
+        return null;
+    }
+    
+    // Reads below include the user's own write-behind meals that are not committed yet
     public List<MealDto> getMealsForDate(User user, LocalDate date) {
-        return mealRepository.findByUserAndMealDate(user, date)
-                .stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return mealWriteBehind.consistentRead(() -> {
+            List<MealDto> meals = new ArrayList<>(mealRepository.findDtosByUserAndDate(user.getId(), date));
+            for (MealWriteBehind.PendingMeal pending : mealWriteBehind.pending(user.getId())) {
+                if (date.equals(pending.mealDate())) {
+                    meals.add(pending.toDto());
+                }
+            }
+            return meals;
+        });
     }
     
     public List<MealDto> getMealsForUser(User user) {
-        return mealRepository.findByUser(user)
-                .stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return mealWriteBehind.consistentRead(() -> {
+            List<MealDto> meals = new ArrayList<>(mealRepository.findDtosByUser(user.getId()));
+            for (MealWriteBehind.PendingMeal pending : mealWriteBehind.pending(user.getId())) {
+                meals.add(pending.toDto());
+            }
+            return meals;
+        });
     }
     
     public DailyNutritionDto getDailyNutrition(User user, LocalDate date) {
-        List<Meal> meals = mealRepository.findByUserAndMealDate(user, date);
+        return mealWriteBehind.consistentRead(() -> {
+            DailyNutritionSummary summary = getSummary(user, date);
+            double calories = summary.getCalories();
+            double protein = summary.getProtein();
+            double carbs = summary.getCarbs();
+            double fat = summary.getFat();
+            double fiber = summary.getFiber();
+            int mealCount = summary.getMealCount();
+            for (MealWriteBehind.PendingMeal pending : mealWriteBehind.pending(user.getId())) {
+                if (date.equals(pending.mealDate())) {
+                    calories += pending.calories();
+                    protein += pending.protein();
+                    carbs += pending.carbs();
+                    fat += pending.fat();
+                    fiber += pending.fiber();
+                    mealCount++;
+                }
+            }
+            return toDailyNutrition(user, date, calories, protein, carbs, fat, fiber, mealCount);
+        });
+    }
+    
+    // One entry per day from..to (inclusive), empty days included, from a single grouped query
+    public List<DailyNutritionDto> getNutritionRange(User user, LocalDate from, LocalDate to, boolean breakdown) {
+        if (from.isAfter(to)) {
+            throw new RuntimeException("'from' must not be after 'to'");
+        }
+        long days = ChronoUnit.DAYS.between(from, to) + 1;
+        if (days > MAX_RANGE_DAYS) {
+            throw new RuntimeException("Range is limited to " + MAX_RANGE_DAYS + " days");
+        }
         
-        double totalCalories = meals.stream().mapToDouble(Meal::getCalories).sum();
-        double totalProtein = meals.stream().mapToDouble(Meal::getProtein).sum();
-        double totalCarbs = meals.stream().mapToDouble(Meal::getCarbs).sum();
-        double totalFat = meals.stream().mapToDouble(Meal::getFat).sum();
-        double totalFiber = meals.stream().mapToDouble(Meal::getFiber).sum();
+        Map<LocalDate, List<MealRepository.DayTypeTotals>> rowsByDay = new HashMap<>();
+        for (MealRepository.DayTypeTotals row : mealRepository.sumByDayAndType(user.getId(), from, to)) {
+            rowsByDay.computeIfAbsent(row.getMealDate(), d -> new ArrayList<>(MealType.values().length)).add(row);
+        }
         
+        List<DailyNutritionDto> series = new ArrayList<>((int) days);
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            double calories = 0, protein = 0, carbs = 0, fat = 0, fiber = 0;
+            int mealCount = 0;
+            Map<MealType, MealTypeNutritionDto> byType = breakdown ? new EnumMap<>(MealType.class) : null;
+            for (MealRepository.DayTypeTotals row : rowsByDay.getOrDefault(date, List.of())) {
+                calories += row.getCalories();
+                protein += row.getProtein();
+                carbs += row.getCarbs();
+                fat += row.getFat();
+                fiber += row.getFiber();
+                mealCount += row.getMealCount().intValue();
+                if (breakdown && row.getMealType() != null) {
+                    byType.put(row.getMealType(), MealTypeNutritionDto.builder()
+                            .calories(row.getCalories())
+                            .protein(row.getProtein())
+                            .carbs(row.getCarbs())
+                            .fat(row.getFat())
+                            .fiber(row.getFiber())
+                            .mealCount(row.getMealCount().intValue())
+                            .build());
+                }
+            }
+            DailyNutritionDto day = toDailyNutrition(user, date, calories, protein, carbs, fat, fiber, mealCount);
+            day.setByMealType(byType);
+            series.add(day);
+        }
+        return series;
+    }
+    
+    private DailyNutritionDto toDailyNutrition(User user, LocalDate date, double totalCalories, double totalProtein,
+                                               double totalCarbs, double totalFat, double totalFiber, int mealCount) {
         double targetCalories = user.getDailyCalorieTarget() != null ? user.getDailyCalorieTarget() : 2000.0;
         double remainingCalories = Math.max(0, targetCalories - totalCalories);
         double calorieProgress = (totalCalories / targetCalories) * 100;
@@ -100,11 +313,13 @@ public class MealService {
                 .targetCalories(targetCalories)
                 .remainingCalories(remainingCalories)
                 .calorieProgress(calorieProgress)
+                .mealCount(mealCount)
                 .build();
     }
     
+    @Transactional
     public String updateMeal(Long mealId, MealRequest request, User user) {
-        return mealRepository.findById(mealId)
+        return mealRepository.findByIdForUpdate(mealId)
                 .map(meal -> {
                     if (!meal.getUser().getId().equals(user.getId())) {
                         return "Unauthorized to update this meal";
@@ -115,6 +330,9 @@ public class MealService {
                         food = foodRepository.findById(request.getFoodId()).orElse(null);
                     }
                     
+                    // Take the old values off the old day; the new date may differ
+                    subtractFromSummary(user, meal);
+                    
                     meal.setFood(food);
                     meal.setMealType(request.getMealType());
                     meal.setFoodName(request.getFoodName());
@@ -125,47 +343,74 @@ public class MealService {
                     meal.calculateNutrition();
                     
                     mealRepository.save(meal);
+                    addToSummary(user, meal);
+                    afterCommit(() -> quickAddService.evict(user.getId()));
                     return "Meal updated successfully";
                 })
                 .orElse("Meal not found");
     }
     
+    @Transactional
     public String deleteMeal(Long mealId, User user) {
-        return mealRepository.findById(mealId)
+        return mealRepository.findByIdForUpdate(mealId)
                 .map(meal -> {
                     if (!meal.getUser().getId().equals(user.getId())) {
                         return "Unauthorized to delete this meal";
                     }
                     
                     mealRepository.delete(meal);
+                    subtractFromSummary(user, meal);
+                    afterCommit(() -> quickAddService.evict(user.getId()));
                     return "Meal deleted successfully";
                 })
                 .orElse("Meal not found");
     }
     
+    // The quick-add counters must only see committed meals: a rolled-back add would stay
+    // counted, and an eviction before commit lets a concurrent rebuild cache the old rows
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+    
     private double getTotalCaloriesToday(User user) {
-        LocalDate today = LocalDate.now();
-        return mealRepository.findByUserAndMealDate(user, today)
-                .stream()
-                .mapToDouble(Meal::getCalories)
-                .sum();
-    }
-    
-    private MealDto convertToDto(Meal meal) {
-        return MealDto.builder()
-                .id(meal.getId())
-                .userId(meal.getUser().getId())
-                .foodId(meal.getFood() != null ? meal.getFood().getId() : null)
-                .foodName(meal.getFoodName())
-                .mealType(meal.getMealType())
-                .quantity(meal.getQuantity())
-                .calories(meal.getCalories())
-                .protein(meal.getProtein())
-                .carbs(meal.getCarbs())
-                .fat(meal.getFat())
-                .fiber(meal.getFiber())
-                .mealDate(meal.getMealDate())
-                .createdAt(meal.getCreatedAt())
-                .build();
+        return getDailyNutrition(user, LocalDate.now()).getTotalCalories();
+    }
+    
+    // A day without meals has no row yet. Rows of a user the backfill has not reached may only
+    // hold meals written since the summary appeared, so those days are summed from the meals.
+    private DailyNutritionSummary getSummary(User user, LocalDate date) {
+        DailyNutritionSummaryId id = new DailyNutritionSummaryId(user.getId(), date);
+        if (nutritionRollupBackfill.isRebuilt(user.getId())) {
+            return summaryRepository.findById(id)
+                    .orElseGet(() -> DailyNutritionSummary.builder().id(id).build());
+        }
+        DailyNutritionSummary summary = DailyNutritionSummary.builder().id(id).build();
+        for (MealRepository.DayTypeTotals row : mealRepository.sumByDayAndType(user.getId(), date, date)) {
+            summary.setCalories(summary.getCalories() + row.getCalories());
+            summary.setProtein(summary.getProtein() + row.getProtein());
+            summary.setCarbs(summary.getCarbs() + row.getCarbs());
+            summary.setFat(summary.getFat() + row.getFat());
+            summary.setFiber(summary.getFiber() + row.getFiber());
+            summary.setMealCount(summary.getMealCount() + row.getMealCount().intValue());
+        }
+        return summary;
+    }
+    
+    // The caller's user rather than meal.getUser(), which may be an uninitialized proxy
+    private void addToSummary(User user, Meal meal) {
+        nutritionRollupService.mealAdded(user, meal);
+    }
+    
+    private void subtractFromSummary(User user, Meal meal) {
+        nutritionRollupService.mealRemoved(user, meal);
     }
 }
\ No newline at end of file
@@ -0,0 +1,751 @@
+package com.fitnessapp.fitness_api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fitnessapp.fitness_api.dto.FoodDto;
+import com.fitnessapp.fitness_api.dto.MealDto;
+import com.fitnessapp.fitness_api.entity.Food;
+import com.fitnessapp.fitness_api.entity.Meal;
+import com.fitnessapp.fitness_api.entity.MealIngestCheckpoint;
+import com.fitnessapp.fitness_api.entity.MealType;
+import com.fitnessapp.fitness_api.entity.User;
+import com.fitnessapp.fitness_api.exception.ServiceBusyException;
+import com.fitnessapp.fitness_api.repository.FoodRepository;
+import com.fitnessapp.fitness_api.repository.MealIngestCheckpointRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Opt-in write-behind path for single meal adds ({@code app.meals.write-behind.enabled=true}).
+ * An accepted meal is appended to a local journal and fsynced (concurrent callers share one
+ * fsync), then queued; a single flusher thread group-commits queued meals with their summary
+ * updates and this node's journal checkpoint in one transaction. A commit that fails for a
+ * transient reason (database down, lock timeout) is retried with backoff and its journal
+ * entries are kept; only meals the database rejects outright (missing user or food,
+ * constraint violation) are moved to a dead-letter file. Journal entries past the checkpoint
+ * are replayed once the application is ready, so a crash loses nothing that was acknowledged;
+ * until then they are pending like any other accepted meal. Seqs continue above both the
+ * journal and the checkpoint, so nothing depends on the wall clock or on local state beyond
+ * the journal. Pending meals stay visible to their owner through {@link #consistentRead}.
+ */
+@Slf4j
+@Component
+public class MealWriteBehind {
+
+    private final boolean enabled;
+    private final Path journalPath;
+    private final Path deadLetterPath;
+    private final String nodeId;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final long retryInitialMs;
+    private final long retryMaxMs;
+    private final BlockingQueue<PendingMeal> queue;
+
+    private final FoodService foodService;
+    private final FoodRepository foodRepository;
+    private final NutritionRollupService nutritionRollupService;
+    private final MealIngestCheckpointRepository checkpointRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    private final Map<Long, List<PendingMeal>> pendingByUser = new ConcurrentHashMap<>();
+    // Even while stable; odd while a flush is between commit and un-publishing its meals
+    private final AtomicLong version = new AtomicLong();
+
+    private final Object journalLock = new Object();
+    private final Object syncLock = new Object();
+    private FileChannel journal;
+    private long nextSeq;
+    private volatile long writtenBytes;
+    private long syncedBytes;
+
+    // Entries found in the journal at startup; once the checkpoint is known only those past it
+    // are kept, made pending and replayed by the flusher before anything else
+    private final Object recoveryLock = new Object();
+    private List<PendingMeal> recovered = List.of();
+    private volatile boolean recoveryReady;
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    private final DistributionSummary flushBatchSize;
+    private final Timer lag;
+    private final Counter deadLettered;
+
+    public MealWriteBehind(FoodService foodService,
+                           FoodRepository foodRepository,
+                           NutritionRollupService nutritionRollupService,
+                           MealIngestCheckpointRepository checkpointRepository,
+                           EntityManager entityManager,
+                           PlatformTransactionManager transactionManager,
+                           ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.meals.write-behind.enabled:false}") boolean enabled,
+                           @Value("${app.meals.write-behind.journal:meal-journal.ndjson}") String journalPath,
+                           @Value("${app.meals.write-behind.node-id:${HOSTNAME:local}}") String nodeId,
+                           @Value("${app.meals.write-behind.queue-capacity:10000}") int queueCapacity,
+                           @Value("${app.meals.write-behind.batch-size:500}") int batchSize,
+                           @Value("${app.meals.write-behind.flush-interval-ms:50}") long flushIntervalMs,
+                           @Value("${app.meals.write-behind.dead-letter:meal-dead-letter.ndjson}") String deadLetterPath,
+                           @Value("${app.meals.write-behind.retry-initial-ms:100}") long retryInitialMs,
+                           @Value("${app.meals.write-behind.retry-max-ms:30000}") long retryMaxMs) {
+        this.foodService = foodService;
+        this.foodRepository = foodRepository;
+        this.nutritionRollupService = nutritionRollupService;
+        this.checkpointRepository = checkpointRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.journalPath = Path.of(journalPath);
+        this.deadLetterPath = Path.of(deadLetterPath);
+        this.nodeId = nodeId;
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.retryInitialMs = Math.max(1, retryInitialMs);
+        this.retryMaxMs = Math.max(this.retryInitialMs, retryMaxMs);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        Gauge.builder("meals.write_behind.queue_depth", queue, BlockingQueue::size)
+                .description("Accepted meals not yet committed to the database")
+                .register(meterRegistry);
+        this.flushBatchSize = DistributionSummary.builder("meals.write_behind.flush_batch_size")
+                .description("Meals committed per group commit")
+                .register(meterRegistry);
+        this.lag = Timer.builder("meals.write_behind.lag")
+                .description("Time from accepting a meal to committing it")
+                .register(meterRegistry);
+        this.deadLettered = Counter.builder("meals.write_behind.dead_lettered")
+                .description("Acknowledged meals the database rejected permanently, written to the dead-letter file")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // A bad journal entry or a database outage at boot must not fail bean creation: without
+    // the checkpoint, recovery is finished by the first read, submit or the flusher instead
+    @PostConstruct
+    void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        journal = FileChannel.open(journalPath,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        recovered = readJournal();
+        // New entries go after the ones still to be replayed
+        writtenBytes = journal.size();
+        syncedBytes = writtenBytes;
+        journal.position(writtenBytes);
+        try {
+            establishRecovery();
+        } catch (RuntimeException e) {
+            log.warn("Meal journal recovery: cannot read the checkpoint yet ({})", rootMessage(e));
+        }
+    }
+
+    /**
+     * Reads this node's checkpoint once. Seqs continue above it and above the journal, and the
+     * recovered entries past it become pending, so their owners see them before the replay.
+     * Throws while the database is unreachable; callers retry.
+     */
+    private void establishRecovery() {
+        if (recoveryReady) {
+            return;
+        }
+        synchronized (recoveryLock) {
+            if (recoveryReady) {
+                return;
+            }
+            long checkpoint = checkpointRepository.findById(nodeId).map(MealIngestCheckpoint::getLastSeq).orElse(0L);
+            long journalMax = recovered.stream().mapToLong(PendingMeal::seq).max().orElse(0);
+            List<PendingMeal> uncommitted = recovered.stream().filter(meal -> meal.seq() > checkpoint).toList();
+            synchronized (journalLock) {
+                nextSeq = Math.max(journalMax, checkpoint) + 1;
+            }
+            version.incrementAndGet();
+            try {
+                for (PendingMeal meal : uncommitted) {
+                    pendingByUser.computeIfAbsent(meal.userId(), id -> new CopyOnWriteArrayList<>()).add(meal);
+                }
+            } finally {
+                version.incrementAndGet();
+            }
+            if (uncommitted.size() < recovered.size()) {
+                log.info("Meal journal recovery: {} entries already committed", recovered.size() - uncommitted.size());
+            }
+            recovered = uncommitted;
+            recoveryReady = true;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        flusher = new Thread(() -> {
+            if (awaitRecovery() && replay()) {
+                flushLoop();
+            }
+        }, "meal-write-behind");
+        flusher.setDaemon(true);
+        flusher.start();
+        log.info("Meal write-behind enabled: journal {}, node {}, batch {}", journalPath, nodeId, batchSize);
+    }
+
+    @PreDestroy
+    void stop() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        running = false;
+        if (flusher != null) {
+            flusher.interrupt();
+            try {
+                flusher.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // Whatever is still queued is in the journal and will be replayed on the next start
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    /**
+     * Journals and queues one meal; returns once the journal entry is on disk.
+     * Throws ServiceBusyException when the queue is full.
+     */
+    public PendingMeal submit(User user, Long foodId, String foodName, MealType mealType,
+                              double quantity, LocalDate mealDate) {
+        try {
+            establishRecovery();
+        } catch (RuntimeException e) {
+            throw new ServiceBusyException("Meal writer is still recovering its journal, please retry shortly");
+        }
+        Food food = resolveFood(foodId);
+        double factor = quantity / 100.0;
+        long end;
+        PendingMeal pending;
+        synchronized (journalLock) {
+            if (queue.remainingCapacity() == 0) {
+                throw new ServiceBusyException("Meal queue is full, please retry shortly");
+            }
+            pending = new PendingMeal(
+                    nextSeq++,
+                    user.getId(),
+                    NutritionRollupService.target(user),
+                    food != null ? food.getId() : null,
+                    foodName,
+                    mealType,
+                    quantity,
+                    food != null ? food.getCalories() * factor : 0,
+                    food != null ? food.getProtein() * factor : 0,
+                    food != null ? food.getCarbs() * factor : 0,
+                    food != null ? food.getFat() * factor : 0,
+                    food != null && food.getFiber() != null ? food.getFiber() * factor : 0,
+                    mealDate,
+                    LocalDateTime.now());
+            try {
+                byte[] line = (objectMapper.writeValueAsString(pending) + "\n").getBytes(StandardCharsets.UTF_8);
+                ByteBuffer buffer = ByteBuffer.wrap(line);
+                while (buffer.hasRemaining()) {
+                    journal.write(buffer);
+                }
+                writtenBytes += line.length;
+                end = writtenBytes;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not append to the meal journal", e);
+            }
+            pendingByUser.computeIfAbsent(pending.userId(), id -> new CopyOnWriteArrayList<>()).add(pending);
+            queue.add(pending);
+        }
+        syncJournal(end);
+        return pending;
+    }
+
+    // Group fsync: whoever gets the lock first forces everything written so far
+    private void syncJournal(long end) {
+        synchronized (syncLock) {
+            if (syncedBytes >= end) {
+                return;
+            }
+            long target = writtenBytes;
+            try {
+                journal.force(false);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not sync the meal journal", e);
+            }
+            syncedBytes = target;
+        }
+    }
+
+    /**
+     * Runs a read that combines database state with {@link #pending}, retrying if a flush
+     * moved meals from pending to committed in the middle of it (seqlock), so a meal is
+     * never counted twice or missed.
+     */
+    public <T> T consistentRead(Supplier<T> read) {
+        if (!enabled) {
+            return read.get();
+        }
+        // Fails like the read itself would while the database is unreachable
+        establishRecovery();
+        while (true) {
+            long before = version.get();
+            if ((before & 1) != 0) {
+                LockSupport.parkNanos(50_000);
+                continue;
+            }
+            T result = read.get();
+            if (version.get() == before) {
+                return result;
+            }
+        }
+    }
+
+    // The user's accepted but not yet committed meals
+    public List<PendingMeal> pending(Long userId) {
+        if (!enabled) {
+            return List.of();
+        }
+        List<PendingMeal> meals = pendingByUser.get(userId);
+        return meals == null ? List.of() : List.copyOf(meals);
+    }
+
+    private void flushLoop() {
+        List<PendingMeal> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingMeal first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                if (!flush(batch, true)) {
+                    return; // stopped while retrying; the journal still holds these meals
+                }
+                truncateJournalIfDrained();
+            } catch (InterruptedException e) {
+                if (!running) {
+                    // One last attempt at what is left, then stop; failures stay in the journal
+                    queue.drainTo(batch);
+                    if (!batch.isEmpty() && flush(batch, true)) {
+                        truncateJournalIfDrained();
+                    }
+                    return;
+                }
+            } catch (RuntimeException e) {
+                log.error("Meal write-behind flush failed", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Commits the batch (in seq order), retrying transient failures with exponential backoff
+     * until it succeeds. A permanent failure is narrowed down by committing meal by meal: the
+     * rejected meals are dead-lettered, and the first transient failure stops the pass so the
+     * checkpoint never moves past a meal that is still to be retried. Returns false if the
+     * writer was stopped first; those meals are still in the journal.
+     */
+    private boolean flush(List<PendingMeal> batch, boolean published) {
+        List<PendingMeal> remaining = new ArrayList<>(batch);
+        long backoff = retryInitialMs;
+        while (!remaining.isEmpty()) {
+            try {
+                commit(remaining, published);
+                return true;
+            } catch (RuntimeException e) {
+                if (isPermanent(e)) {
+                    remaining = commitOneByOne(remaining, published);
+                    if (remaining.isEmpty()) {
+                        return true;
+                    }
+                }
+                if (!running) {
+                    return false;
+                }
+                log.warn("Could not commit {} write-behind meals ({}), retrying in {} ms",
+                        remaining.size(), rootMessage(e), backoff);
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    return false;
+                }
+                backoff = Math.min(backoff * 2, retryMaxMs);
+            }
+        }
+        return true;
+    }
+
+    // Returns the meals still to be retried: the first transient failure and everything after it
+    private List<PendingMeal> commitOneByOne(List<PendingMeal> meals, boolean published) {
+        for (int i = 0; i < meals.size(); i++) {
+            PendingMeal meal = meals.get(i);
+            try {
+                commit(List.of(meal), published);
+            } catch (RuntimeException e) {
+                if (!isPermanent(e)) {
+                    return new ArrayList<>(meals.subList(i, meals.size()));
+                }
+                deadLetter(meal, null, e);
+                if (published) {
+                    unpublish(List.of(meal));
+                }
+            }
+        }
+        return List.of();
+    }
+
+    // The database rejected the row itself (e.g. its user was deleted); retrying cannot help
+    static boolean isPermanent(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause() == t ? null : t.getCause()) {
+            if (t instanceof DataIntegrityViolationException
+                    || t instanceof EntityNotFoundException
+                    || t instanceof ConstraintViolationException) {
+                return true;
+            }
+            if (t instanceof SQLException sql && sql.getSQLState() != null && sql.getSQLState().startsWith("23")) {
+                return true; // integrity constraint violation class
+            }
+        }
+        return false;
+    }
+
+    private static String rootMessage(Throwable error) {
+        Throwable root = error;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+
+    // Appends one rejected entry to the dead-letter file (fsynced) so it can be repaired by hand
+    private void deadLetter(PendingMeal meal, String rawLine, Throwable error) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("deadLetteredAt", LocalDateTime.now().toString());
+        entry.put("error", error != null ? rootMessage(error) : "unreadable journal line");
+        if (meal != null) {
+            entry.put("meal", meal);
+        } else {
+            entry.put("raw", rawLine);
+        }
+        try (FileChannel out = FileChannel.open(deadLetterPath,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap((objectMapper.writeValueAsString(entry) + "\n").getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            out.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write the meal dead-letter file", e);
+        }
+        deadLettered.increment();
+        log.error("Write-behind meal {} moved to {}: {}",
+                meal != null ? "seq " + meal.seq() + " for user " + meal.userId() : "line", deadLetterPath,
+                entry.get("error"));
+    }
+
+    private void commit(List<PendingMeal> batch, boolean published) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (PendingMeal p : batch) {
+                Meal meal = Meal.builder()
+                        .user(entityManager.getReference(User.class, p.userId()))
+                        .food(p.foodId() != null ? entityManager.getReference(Food.class, p.foodId()) : null)
+                        .mealType(p.mealType())
+                        .foodName(p.foodName())
+                        .quantity(p.quantity())
+                        .calories(p.calories())
+                        .protein(p.protein())
+                        .carbs(p.carbs())
+                        .fat(p.fat())
+                        .fiber(p.fiber())
+                        .mealDate(p.mealDate())
+                        .createdAt(p.createdAt())
+                        .build();
+                entityManager.persist(meal);
+            }
+            entityManager.flush();
+
+            // One summary update per user-day, in a fixed order
+            Map<String, List<PendingMeal>> perDay = new HashMap<>();
+            for (PendingMeal p : batch) {
+                perDay.computeIfAbsent(p.userId() + "|" + p.mealDate(), k -> new ArrayList<>()).add(p);
+            }
+            perDay.values().stream()
+                    .sorted(Comparator.comparing((List<PendingMeal> l) -> l.get(0).userId())
+                            .thenComparing(l -> l.get(0).mealDate()))
+                    .forEach(day -> {
+                        PendingMeal any = day.get(0);
+                        nutritionRollupService.applyDelta(any.userId(), any.target(), any.mealDate(),
+                                day.stream().mapToDouble(PendingMeal::calories).sum(),
+                                day.stream().mapToDouble(PendingMeal::protein).sum(),
+                                day.stream().mapToDouble(PendingMeal::carbs).sum(),
+                                day.stream().mapToDouble(PendingMeal::fat).sum(),
+                                day.stream().mapToDouble(PendingMeal::fiber).sum(),
+                                day.size());
+                    });
+
+            long maxSeq = batch.stream().mapToLong(PendingMeal::seq).max().orElse(0);
+            MealIngestCheckpoint checkpoint = checkpointRepository.findById(nodeId)
+                    .orElseGet(() -> MealIngestCheckpoint.builder().node(nodeId).build());
+            checkpoint.setLastSeq(Math.max(checkpoint.getLastSeq(), maxSeq));
+            checkpointRepository.save(checkpoint);
+            entityManager.flush();
+            entityManager.clear();
+
+            if (published) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void beforeCommit(boolean readOnly) {
+                        version.incrementAndGet();
+                    }
+
+                    @Override
+                    public void afterCompletion(int completionStatus) {
+                        if (completionStatus == STATUS_COMMITTED) {
+                            removePending(batch);
+                        }
+                        // Back to even, whether or not the commit went through
+                        if ((version.get() & 1) != 0) {
+                            version.incrementAndGet();
+                        }
+                    }
+                });
+            }
+        });
+
+        flushBatchSize.record(batch.size());
+        long now = System.currentTimeMillis();
+        for (PendingMeal p : batch) {
+            long acceptedAt = p.createdAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            lag.record(Duration.ofMillis(Math.max(0, now - acceptedAt)));
+        }
+    }
+
+    private void unpublish(List<PendingMeal> meals) {
+        version.incrementAndGet();
+        try {
+            removePending(meals);
+        } finally {
+            version.incrementAndGet();
+        }
+    }
+
+    private void removePending(List<PendingMeal> meals) {
+        for (PendingMeal meal : meals) {
+            List<PendingMeal> list = pendingByUser.get(meal.userId());
+            if (list != null) {
+                list.remove(meal);
+                if (list.isEmpty()) {
+                    pendingByUser.remove(meal.userId(), list);
+                }
+            }
+        }
+    }
+
+    // Appends and enqueues happen under journalLock, and the flusher only gets here once its
+    // batch is committed or dead-lettered, so an empty queue means the file can start over.
+    // Seqs after a restart continue above the checkpoint, which covers everything truncated.
+    private void truncateJournalIfDrained() {
+        synchronized (journalLock) {
+            if (!queue.isEmpty() || writtenBytes == 0) {
+                return;
+            }
+            try {
+                journal.truncate(0);
+                journal.position(0);
+                journal.force(false);
+            } catch (IOException e) {
+                log.warn("Could not truncate the meal journal: {}", e.getMessage());
+                return;
+            }
+            writtenBytes = 0;
+            synchronized (syncLock) {
+                syncedBytes = 0;
+            }
+        }
+    }
+
+    /**
+     * Parses the journal left by the previous run. Only the final line may be unreadable: it is
+     * a torn append from a crash, was never acknowledged, and is cut off. Any other unreadable
+     * line is dead-lettered rather than silently skipped.
+     */
+    private List<PendingMeal> readJournal() throws IOException {
+        byte[] bytes = new byte[(int) journal.size()];
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        journal.position(0);
+        while (buffer.hasRemaining() && journal.read(buffer) >= 0) {
+            // keep reading
+        }
+
+        List<PendingMeal> meals = new ArrayList<>();
+        int start = 0;
+        while (start < bytes.length) {
+            int end = start;
+            while (end < bytes.length && bytes[end] != '\n') {
+                end++;
+            }
+            boolean last = end >= bytes.length - 1;
+            String line = new String(bytes, start, end - start, StandardCharsets.UTF_8);
+            if (!line.isBlank()) {
+                try {
+                    meals.add(objectMapper.readValue(line, PendingMeal.class));
+                } catch (IOException e) {
+                    if (last) {
+                        log.warn("Meal journal: cutting off a torn final entry ({} bytes)", bytes.length - start);
+                        journal.truncate(start);
+                        journal.force(false);
+                        break;
+                    }
+                    deadLetter(null, line, null);
+                }
+            }
+            start = end + 1;
+        }
+        return meals;
+    }
+
+    // Waits out a database outage at boot; false if stopped first
+    private boolean awaitRecovery() {
+        long backoff = retryInitialMs;
+        while (true) {
+            try {
+                establishRecovery();
+                return true;
+            } catch (RuntimeException e) {
+                log.warn("Meal journal recovery: cannot read the checkpoint ({}), retrying in {} ms", rootMessage(e), backoff);
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    return false;
+                }
+                backoff = Math.min(backoff * 2, retryMaxMs);
+            }
+        }
+    }
+
+    // Commits the recovered entries past the checkpoint; they are pending, so they are published
+    private boolean replay() {
+        List<PendingMeal> replay = recovered;
+        if (replay.isEmpty()) {
+            return true;
+        }
+        for (int from = 0; from < replay.size(); from += batchSize) {
+            if (!flush(replay.subList(from, Math.min(replay.size(), from + batchSize)), true)) {
+                return false;
+            }
+        }
+        log.info("Meal journal recovery: {} meals replayed", replay.size());
+        recovered = List.of();
+        truncateJournalIfDrained();
+        return true;
+    }
+
+    private Food resolveFood(Long foodId) {
+        if (foodId == null) {
+            return null;
+        }
+        FoodDto dto = foodService.catalog().get(foodId);
+        if (dto != null) {
+            return Food.builder()
+                    .id(dto.getId())
+                    .calories(dto.getCalories())
+                    .protein(dto.getProtein())
+                    .carbs(dto.getCarbs())
+                    .fat(dto.getFat())
+                    .fiber(dto.getFiber())
+                    .build();
+        }
+        // Inactive foods are not in the catalog but can still be logged
+        return foodRepository.findById(foodId).orElse(null);
+    }
+
+    /** A meal that has been acknowledged but may not be committed yet; also the journal line format. */
+    public record PendingMeal(long seq,
+                              Long userId,
+                              double target,
+                              Long foodId,
+                              String foodName,
+                              MealType mealType,
+                              double quantity,
+                              double calories,
+                              double protein,
+                              double carbs,
+                              double fat,
+                              double fiber,
+                              LocalDate mealDate,
+                              LocalDateTime createdAt) {
+
+        public MealDto toDto() {
+            return MealDto.builder()
+                    .userId(userId)
+                    .foodId(foodId)
+                    .foodName(foodName)
+                    .mealType(mealType)
+                    .quantity(quantity)
+                    .calories(calories)
+                    .protein(protein)
+                    .carbs(carbs)
+                    .fat(fat)
+                    .fiber(fiber)
+                    .mealDate(mealDate)
+                    .createdAt(createdAt)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.fitnessapp.fitness_api.service;
+
+import com.fitnessapp.fitness_api.entity.BatchJobCheckpoint;
+import com.fitnessapp.fitness_api.entity.User;
+import com.fitnessapp.fitness_api.repository.BatchJobCheckpointRepository;
+import com.fitnessapp.fitness_api.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Rebuilds the daily summary and week/month rollups of every user from the meals table,
+ * one user per transaction, on a background thread. Users are walked in id order and the
+ * position is checkpointed, so the first start after the summary tables appear builds them
+ * once and later starts only finish an interrupted run. Until a user has been rebuilt
+ * ({@link #isRebuilt}), readers aggregate the meals table instead of trusting the summary.
+ * {@code --backfill-nutrition-rollups} starts over, e.g. after a repair.
+ */
+@Slf4j
+@Component
+public class NutritionRollupBackfill implements ApplicationRunner {
+
+    static final String JOB = "nutrition-rollup-backfill";
+    private static final long REFRESH_MS = 1000;
+
+    private final UserRepository userRepository;
+    private final NutritionRollupService nutritionRollupService;
+    private final BatchJobCheckpointRepository checkpointRepository;
+    private final boolean onStartup;
+    private final int pageSize;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    // Last known progress; other nodes may advance it, so it is re-read while incomplete
+    private volatile long rebuiltThrough = -1;
+    private volatile boolean complete;
+    private volatile long refreshedAt;
+
+    public NutritionRollupBackfill(UserRepository userRepository,
+                                   NutritionRollupService nutritionRollupService,
+                                   BatchJobCheckpointRepository checkpointRepository,
+                                   @Value("${app.nutrition.backfill-on-startup:true}") boolean onStartup,
+                                   @Value("${app.nutrition.backfill-page-size:500}") int pageSize) {
+        this.userRepository = userRepository;
+        this.nutritionRollupService = nutritionRollupService;
+        this.checkpointRepository = checkpointRepository;
+        this.onStartup = onStartup;
+        this.pageSize = pageSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        boolean restart = args.containsOption("backfill-nutrition-rollups");
+        if (restart || onStartup) {
+            start(restart);
+        }
+    }
+
+    // Returns false when a backfill is already running
+    public boolean start(boolean restart) {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        Thread worker = new Thread(() -> {
+            try {
+                backfill(restart);
+            } finally {
+                running.set(false);
+            }
+        }, "nutrition-rollup-backfill");
+        worker.setDaemon(true);
+        worker.start();
+        return true;
+    }
+
+    /** Whether the user's summary rows were rebuilt from their meals and can be read as is. */
+    public boolean isRebuilt(Long userId) {
+        if (complete || userId <= rebuiltThrough) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        if (now - refreshedAt > REFRESH_MS) {
+            refreshedAt = now;
+            checkpointRepository.findById(JOB).ifPresent(this::remember);
+        }
+        return complete || userId <= rebuiltThrough;
+    }
+
+    private void remember(BatchJobCheckpoint checkpoint) {
+        rebuiltThrough = checkpoint.getLastId();
+        complete = checkpoint.getCompletedAt() != null;
+    }
+
+    private void backfill(boolean restart) {
+        BatchJobCheckpoint checkpoint = checkpointRepository.findById(JOB).orElse(null);
+        LocalDateTime now = LocalDateTime.now();
+        if (checkpoint != null && checkpoint.getCompletedAt() != null && !restart) {
+            remember(checkpoint);
+            return;
+        }
+        if (checkpoint == null || restart) {
+            checkpoint = BatchJobCheckpoint.builder().job(JOB).startedAt(now).build();
+        }
+        checkpoint.setLastError(null);
+        checkpoint.setUpdatedAt(now);
+        checkpoint = checkpointRepository.save(checkpoint);
+
+        long start = System.nanoTime();
+        try {
+            long afterId = checkpoint.getLastId();
+            List<User> page;
+            while (!(page = userRepository.findPageAfter(afterId, PageRequest.of(0, pageSize))).isEmpty()) {
+                for (User user : page) {
+                    // A failure stops the run here: the checkpoint must not move past an unbuilt user
+                    nutritionRollupService.rebuild(user);
+                    checkpoint.setLastId(user.getId());
+                    checkpoint.setProcessed(checkpoint.getProcessed() + 1);
+                }
+                afterId = checkpoint.getLastId();
+                checkpoint.setUpdatedAt(LocalDateTime.now());
+                checkpoint = checkpointRepository.save(checkpoint);
+                remember(checkpoint);
+                log.info("Nutrition rollup backfill: {} users rebuilt (last id {})", checkpoint.getProcessed(), afterId);
+            }
+            checkpoint.setCompletedAt(LocalDateTime.now());
+            checkpoint.setUpdatedAt(checkpoint.getCompletedAt());
+            checkpoint = checkpointRepository.save(checkpoint);
+            remember(checkpoint);
+            log.info("Nutrition rollup backfill finished: {} users in {} ms",
+                    checkpoint.getProcessed(), (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            String error = String.valueOf(e.getMessage());
+            checkpoint.setLastError(error.length() > 500 ? error.substring(0, 500) : error);
+            checkpoint.setUpdatedAt(LocalDateTime.now());
+            checkpointRepository.save(checkpoint);
+            log.warn("Nutrition rollup backfill stopped after id {}: {}; it resumes on the next start",
+                    checkpoint.getLastId(), error);
+        }
+    }
+}
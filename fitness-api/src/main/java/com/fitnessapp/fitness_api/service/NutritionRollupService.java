@@ -0,0 +1,204 @@
+package com.fitnessapp.fitness_api.service;
+
+import com.fitnessapp.fitness_api.dto.NutritionPeriodDto;
+import com.fitnessapp.fitness_api.entity.Meal;
+import com.fitnessapp.fitness_api.entity.NutritionRollup;
+import com.fitnessapp.fitness_api.entity.RollupPeriod;
+import com.fitnessapp.fitness_api.entity.User;
+import com.fitnessapp.fitness_api.repository.DailyNutritionSummaryRepository;
+import com.fitnessapp.fitness_api.repository.NutritionRollupRepository;
+import com.fitnessapp.fitness_api.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the day -> ISO week -> month nutrition tiers in step with meal writes.
+ * Every tier is updated with signed deltas in the caller's transaction; the day row is
+ * written first and its new state decides whether the day started or stopped counting
+ * as logged / over target, which is then pushed up to the week and month rows. A day is
+ * over target against the target stamped on its row, so the deltas stay consistent with
+ * the week and month counters however the user's target moves; a target change restamps
+ * the days and rebuilds the rollups ({@link #retarget}).
+ * Reads only touch the tier that matches the requested granularity.
+ */
+@Service
+@RequiredArgsConstructor
+public class NutritionRollupService {
+
+    private static final int MAX_WEEKS = 520;
+    private static final int MAX_MONTHS = 240;
+
+    private final DailyNutritionSummaryRepository summaryRepository;
+    private final NutritionRollupRepository rollupRepository;
+    private final UserRepository userRepository;
+
+    public void mealAdded(User user, Meal meal) {
+        apply(user, meal, 1);
+    }
+
+    public void mealRemoved(User user, Meal meal) {
+        apply(user, meal, -1);
+    }
+
+    private void apply(User user, Meal meal, int sign) {
+        applyDelta(user, meal.getMealDate(), sign * meal.getCalories(), sign * meal.getProtein(),
+                sign * meal.getCarbs(), sign * meal.getFat(), sign * meal.getFiber(), sign);
+    }
+
+    /**
+     * Applies signed totals for {@code meals} meals (negative to remove) to one user-day and
+     * its week and month. Batch writers call this once per affected day.
+     */
+    public void applyDelta(User user, LocalDate date, double calories, double protein, double carbs,
+                           double fat, double fiber, int meals) {
+        applyDelta(user.getId(), target(user), date, calories, protein, carbs, fat, fiber, meals);
+    }
+
+    // Same, for writers that only carry the user's id and calorie target
+    public void applyDelta(Long userId, double target, LocalDate date, double calories, double protein,
+                           double carbs, double fat, double fiber, int meals) {
+        // Waits for a running rebuild of this user, and keeps a new one out until we commit
+        userRepository.lockForMealWrite(userId);
+        if (meals > 0) {
+            summaryRepository.add(userId, date, calories, protein, carbs, fat, fiber, meals, target);
+        } else {
+            summaryRepository.subtract(userId, date, -calories, -protein, -carbs, -fat, -fiber, -meals);
+        }
+
+        // The day row is locked by this transaction now, so before/after are consistent
+        DailyNutritionSummaryRepository.DayTotals after = summaryRepository.findTotals(userId, date);
+        if (after == null) {
+            return; // removing from a day that was never summarized; the backfill owns that data
+        }
+        double afterCalories = after.getCalories();
+        int afterMeals = after.getMealCount();
+        double dayTarget = after.getCalorieTarget() != null ? after.getCalorieTarget() : target;
+        double beforeCalories = afterCalories - calories;
+        int beforeMeals = afterMeals - meals;
+
+        int daysLogged = (afterMeals > 0 ? 1 : 0) - (beforeMeals > 0 ? 1 : 0);
+        int daysOverTarget = (afterCalories > dayTarget ? 1 : 0) - (beforeCalories > dayTarget ? 1 : 0);
+
+        rollupRepository.add(userId, RollupPeriod.WEEK.name(), weekStart(date),
+                calories, protein, carbs, fat, fiber, meals, daysLogged, daysOverTarget);
+        rollupRepository.add(userId, RollupPeriod.MONTH.name(), monthStart(date),
+                calories, protein, carbs, fat, fiber, meals, daysLogged, daysOverTarget);
+    }
+
+    // ISO weeks overlapping from..to, oldest first, empty weeks included
+    public List<NutritionPeriodDto> weekly(User user, LocalDate from, LocalDate to) {
+        LocalDate first = weekStart(from);
+        LocalDate last = weekStart(to);
+        if (ChronoUnit.WEEKS.between(first, last) + 1 > MAX_WEEKS) {
+            throw new RuntimeException("Range is limited to " + MAX_WEEKS + " weeks");
+        }
+        return series(user, RollupPeriod.WEEK, first, last);
+    }
+
+    // Calendar months overlapping from..to, oldest first, empty months included
+    public List<NutritionPeriodDto> monthly(User user, LocalDate from, LocalDate to) {
+        LocalDate first = monthStart(from);
+        LocalDate last = monthStart(to);
+        if (ChronoUnit.MONTHS.between(first, last) + 1 > MAX_MONTHS) {
+            throw new RuntimeException("Range is limited to " + MAX_MONTHS + " months");
+        }
+        return series(user, RollupPeriod.MONTH, first, last);
+    }
+
+    private List<NutritionPeriodDto> series(User user, RollupPeriod period, LocalDate first, LocalDate last) {
+        if (first.isAfter(last)) {
+            throw new RuntimeException("'from' must not be after 'to'");
+        }
+        Map<LocalDate, NutritionRollup> rows = new HashMap<>();
+        for (NutritionRollup row : rollupRepository.findRange(user.getId(), period, first, last)) {
+            rows.put(row.getId().getPeriodStart(), row);
+        }
+
+        double target = target(user);
+        List<NutritionPeriodDto> result = new ArrayList<>();
+        for (LocalDate start = first; !start.isAfter(last); start = next(period, start)) {
+            NutritionRollup row = rows.get(start);
+            LocalDate end = next(period, start).minusDays(1);
+            int daysInPeriod = (int) ChronoUnit.DAYS.between(start, end) + 1;
+            if (row == null) {
+                result.add(NutritionPeriodDto.builder()
+                        .periodStart(start).periodEnd(end)
+                        .totalCalories(0.0).totalProtein(0.0).totalCarbs(0.0).totalFat(0.0).totalFiber(0.0)
+                        .mealCount(0).daysLogged(0).daysOverTarget(0)
+                        .averageCalories(0.0)
+                        .targetCalories(target * daysInPeriod)
+                        .build());
+                continue;
+            }
+            result.add(NutritionPeriodDto.builder()
+                    .periodStart(start).periodEnd(end)
+                    .totalCalories(row.getCalories())
+                    .totalProtein(row.getProtein())
+                    .totalCarbs(row.getCarbs())
+                    .totalFat(row.getFat())
+                    .totalFiber(row.getFiber())
+                    .mealCount(row.getMealCount())
+                    .daysLogged(row.getDaysLogged())
+                    .daysOverTarget(row.getDaysOverTarget())
+                    .averageCalories(row.getDaysLogged() == 0 ? 0.0 : row.getCalories() / row.getDaysLogged())
+                    .targetCalories(target * daysInPeriod)
+                    .build());
+        }
+        return result;
+    }
+
+    /**
+     * Recomputes every tier for one user from their meals; used by the backfill job. The user
+     * row lock is taken first, so meal writes in flight commit before the meals are read and
+     * later ones apply their deltas on top of the rebuilt rows.
+     */
+    @Transactional
+    public void rebuild(User user) {
+        userRepository.lockForSummaryRebuild(user.getId());
+        summaryRepository.deleteAllForUser(user.getId());
+        summaryRepository.rebuildForUser(user.getId(), target(user));
+        rollupRepository.deleteAllForUser(user.getId());
+        rollupRepository.rebuildForUsers(List.of(user.getId()));
+    }
+
+    /**
+     * Stamps the days of users whose calorie target just changed with the new target and
+     * rebuilds their week and month rows from the day tier. Runs in the caller's transaction,
+     * which must have written the new targets: those row locks keep meal writes out until commit.
+     */
+    public void retarget(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        summaryRepository.retargetForUsers(userIds);
+        rollupRepository.deleteAllForUsers(userIds);
+        rollupRepository.rebuildForUsers(userIds);
+    }
+
+    static LocalDate weekStart(LocalDate date) {
+        return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    static LocalDate monthStart(LocalDate date) {
+        return date.withDayOfMonth(1);
+    }
+
+    private static LocalDate next(RollupPeriod period, LocalDate start) {
+        return period == RollupPeriod.WEEK ? start.plusWeeks(1) : start.plusMonths(1);
+    }
+
+    static double target(User user) {
+        return user.getDailyCalorieTarget() != null ? user.getDailyCalorieTarget() : 2000.0;
+    }
+}
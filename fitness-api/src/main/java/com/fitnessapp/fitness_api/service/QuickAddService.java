@@ -0,0 +1,178 @@
+package com.fitnessapp.fitness_api.service;
+
+import com.fitnessapp.fitness_api.dto.FoodDto;
+import com.fitnessapp.fitness_api.repository.MealRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-user "recent and frequent" foods for quick meal logging.
+ * Each user has a fixed number of decayed counters (space-saving: a new food takes over the
+ * weakest counter and inherits its score), so memory per user is bounded however many foods
+ * they log. Decay uses forward weights 2^(age/half-life) relative to a per-user base day, so
+ * scores never have to be touched as time passes. The top-K list is recomputed on writes and
+ * served as-is, and users are held in an LRU cache; a miss rebuilds from recent meals.
+ */
+@Service
+public class QuickAddService {
+
+    private final MealRepository mealRepository;
+    private final FoodService foodService;
+    private final int countersPerUser;
+    private final int topK;
+    private final double halfLifeDays;
+    private final int rebuildDays;
+    private final Map<Long, Counters> users;
+
+    public QuickAddService(MealRepository mealRepository,
+                           FoodService foodService,
+                           @Value("${app.meals.quick-add.counters-per-user:64}") int countersPerUser,
+                           @Value("${app.meals.quick-add.top-k:20}") int topK,
+                           @Value("${app.meals.quick-add.half-life-days:14}") double halfLifeDays,
+                           @Value("${app.meals.quick-add.rebuild-days:90}") int rebuildDays,
+                           @Value("${app.meals.quick-add.cache-size:10000}") int cacheSize) {
+        this.mealRepository = mealRepository;
+        this.foodService = foodService;
+        this.countersPerUser = countersPerUser;
+        this.topK = topK;
+        this.halfLifeDays = halfLifeDays;
+        this.rebuildDays = rebuildDays;
+        this.users = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Counters> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    public List<FoodDto> quickAdd(Long userId, int limit) {
+        Counters counters = countersFor(userId);
+        long[] top = counters.top;
+        FoodCatalog.Snapshot catalog = foodService.catalog();
+        List<FoodDto> foods = new ArrayList<>(Math.min(limit, top.length));
+        for (int i = 0; i < top.length && foods.size() < limit; i++) {
+            FoodDto food = catalog.get(top[i]);
+            if (food != null) { // skips foods deactivated since they were logged
+                foods.add(food);
+            }
+        }
+        return foods;
+    }
+
+    // Called for every logged meal; users that are not cached are rebuilt on their next request
+    public void recordUse(Long userId, Long foodId, LocalDate date) {
+        if (foodId == null) {
+            return;
+        }
+        Counters counters;
+        synchronized (users) {
+            counters = users.get(userId);
+        }
+        if (counters != null) {
+            counters.add(foodId, date, 1);
+        }
+    }
+
+    // Edits and deletes cannot be taken back out of a decayed counter; rebuild instead
+    public void evict(Long userId) {
+        synchronized (users) {
+            users.remove(userId);
+        }
+    }
+
+    private Counters countersFor(Long userId) {
+        synchronized (users) {
+            Counters cached = users.get(userId);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        LocalDate today = LocalDate.now();
+        Counters rebuilt = new Counters(today.minusDays(rebuildDays));
+        for (MealRepository.FoodUse use : mealRepository.findFoodUsesSince(userId, today.minusDays(rebuildDays))) {
+            rebuilt.add(use.getFoodId(), use.getMealDate(), use.getUses());
+        }
+        synchronized (users) {
+            Counters raced = users.putIfAbsent(userId, rebuilt);
+            return raced != null ? raced : rebuilt;
+        }
+    }
+
+    private final class Counters {
+
+        private LocalDate base;
+        private final long[] foodIds = new long[countersPerUser];
+        private final double[] scores = new double[countersPerUser];
+        private int size;
+        private volatile long[] top = new long[0];
+
+        Counters(LocalDate base) {
+            this.base = base;
+        }
+
+        synchronized void add(long foodId, LocalDate date, long uses) {
+            double days = date.toEpochDay() - base.toEpochDay();
+            if (days > 40 * halfLifeDays) {
+                rebase(date);
+                days = 0;
+            }
+            double weight = uses * Math.pow(2, days / halfLifeDays);
+
+            int slot = -1;
+            for (int i = 0; i < size; i++) {
+                if (foodIds[i] == foodId) {
+                    slot = i;
+                    break;
+                }
+            }
+            if (slot >= 0) {
+                scores[slot] += weight;
+            } else if (size < foodIds.length) {
+                foodIds[size] = foodId;
+                scores[size] = weight;
+                size++;
+            } else {
+                // Space-saving: replace the weakest counter, keeping its score as an error bound
+                int min = 0;
+                for (int i = 1; i < size; i++) {
+                    if (scores[i] < scores[min]) {
+                        min = i;
+                    }
+                }
+                foodIds[min] = foodId;
+                scores[min] += weight;
+            }
+            top = computeTop();
+        }
+
+        // Moves the base day forward so weights stay well inside double range
+        private void rebase(LocalDate newBase) {
+            double factor = Math.pow(2, -(newBase.toEpochDay() - base.toEpochDay()) / halfLifeDays);
+            for (int i = 0; i < size; i++) {
+                scores[i] *= factor;
+            }
+            base = newBase;
+        }
+
+        private long[] computeTop() {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparingDouble((Integer i) -> scores[i]).reversed());
+            long[] result = new long[Math.min(topK, size)];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = foodIds[order[i]];
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.fitnessapp.fitness_api.service;
+
+import com.fitnessapp.fitness_api.entity.RefreshToken;
+import com.fitnessapp.fitness_api.entity.User;
+import com.fitnessapp.fitness_api.repository.RefreshTokenRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+
+@Service
+@RequiredArgsConstructor
+public class RefreshTokenService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    @Value("${app.jwt.refresh-expiration-ms:1209600000}") // default 14 days
+    private long refreshExpirationMs;
+
+    // Issues a new opaque refresh token for the user; only its hash is persisted
+    @Transactional
+    public String issue(User user) {
+        byte[] raw = new byte[32];
+        RANDOM.nextBytes(raw);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+
+        LocalDateTime now = LocalDateTime.now();
+        refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash(hash(token))
+                .user(user)
+                .createdAt(now)
+                .expiresAt(now.plusNanos(refreshExpirationMs * 1_000_000))
+                .revoked(false)
+                .build());
+        return token;
+    }
+
+    /**
+     * Consumes a refresh token and returns its owner. The token is revoked so it can
+     * only be used once; presenting an already used token revokes every token of that
+     * user, since it means the token was copied.
+     */
+    @Transactional(noRollbackFor = RuntimeException.class)
+    public User rotate(String token) {
+        String tokenHash = hash(token);
+        RefreshToken stored = refreshTokenRepository.findByTokenHash(tokenHash)
+                .orElseThrow(() -> new RuntimeException("Invalid refresh token"));
+
+        if (stored.isRevoked()) {
+            throw reused(stored);
+        }
+        if (stored.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new RuntimeException("Refresh token expired");
+        }
+        if (stored.getUser().isDisabled()) {
+            throw new RuntimeException("Account is being deleted");
+        }
+
+        // The read above takes no lock, so two concurrent refreshes can both get here;
+        // the conditional update lets exactly one of them consume the token
+        if (refreshTokenRepository.consume(tokenHash) == 0) {
+            throw reused(stored);
+        }
+        return stored.getUser();
+    }
+
+    private RuntimeException reused(RefreshToken stored) {
+        refreshTokenRepository.revokeAllForUser(stored.getUser().getId());
+        return new RuntimeException("Refresh token already used");
+    }
+
+    @Transactional
+    public void revoke(String token) {
+        refreshTokenRepository.findByTokenHash(hash(token))
+                .ifPresent(stored -> stored.setRevoked(true));
+    }
+
+    @Transactional
+    public void revokeAll(Long userId) {
+        refreshTokenRepository.revokeAllForUser(userId);
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,32 +1,67 @@
 package com.fitnessapp.fitness_api.service;
 
+import com.fitnessapp.fitness_api.dto.UserDto;
+import com.fitnessapp.fitness_api.dto.UserPageDto;
+import com.fitnessapp.fitness_api.dto.UserProfileDto;
+import com.fitnessapp.fitness_api.entity.AccountDeletion;
 import com.fitnessapp.fitness_api.entity.User;
 import com.fitnessapp.fitness_api.entity.Gender;
 import com.fitnessapp.fitness_api.entity.ActivityLevel;
 import com.fitnessapp.fitness_api.entity.GoalType;
 import com.fitnessapp.fitness_api.repository.UserRepository;
+import com.fitnessapp.fitness_api.security.UserSnapshotCache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 @Service
 @RequiredArgsConstructor
 public class UserService {
 
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final UserRepository userRepository;
+    private final UserSnapshotCache userSnapshotCache;
+    private final AccountDeletionService accountDeletionService;
+    private final NutritionRollupService nutritionRollupService;
+    private final EntityManager entityManager;
 
     // Create a new user
     public User createUser(User user) {
         // Calculate daily calories before saving
         int dailyCalories = calculateDailyCalories(user);
         user.setDailyCalorieTarget(dailyCalories);
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userSnapshotCache.evict(saved.getId());
+        return saved;
     }
 
-    // Get all users
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    // Page of user profiles ordered by id; the cursor is the last id of the previous page
+    public UserPageDto getUsers(String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        long afterId;
+        try {
+            afterId = cursor == null || cursor.isBlank() ? 0L : Long.parseLong(cursor);
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Invalid cursor: " + cursor);
+        }
+        // One extra row tells us whether another page exists
+        List<UserProfileDto> rows = userRepository.findProfilesAfter(afterId, PageRequest.of(0, pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        List<UserProfileDto> content = hasMore ? rows.subList(0, pageSize) : rows;
+        return UserPageDto.builder()
+                .content(content)
+                .nextCursor(hasMore ? String.valueOf(content.get(content.size() - 1).getId()) : null)
+                .hasMore(hasMore)
+                .build();
     }
 
     // Get user by ID
@@ -34,15 +69,21 @@ public class UserService {
         return userRepository.findById(id).orElse(null);
     }
 
+    public UserProfileDto getProfile(Long id) {
+        return userRepository.findProfileById(id).orElse(null);
+    }
+
     // Get user by email
     public User getUserByEmail(String email) {
         return userRepository.findByEmail(email).orElse(null);
     }
 
     // Update user
+    @Transactional
     public User updateUser(Long id, User updatedUser) {
         return userRepository.findById(id)
                 .map(user -> {
+                    Integer previousTarget = user.getDailyCalorieTarget();
                     user.setName(updatedUser.getName());
                     user.setAge(updatedUser.getAge());
                     user.setHeight(updatedUser.getHeight());
@@ -55,13 +96,106 @@ public class UserService {
                     int dailyCalories = calculateDailyCalories(user);
                     user.setDailyCalorieTarget(dailyCalories);
 
-                    return userRepository.save(user);
+                    User saved = userRepository.saveAndFlush(user);
+                    if (!Objects.equals(previousTarget, saved.getDailyCalorieTarget())) {
+                        nutritionRollupService.retarget(List.of(id));
+                    }
+                    userSnapshotCache.evict(id);
+                    return saved;
                 }).orElse(null);
     }
 
-    // Delete user
-    public void deleteUser(Long id) {
-        userRepository.deleteById(id);
+    /**
+     * Applies the non-null fields of {@code patch} to the user's profile with a single UPDATE
+     * of only the columns that changed, recomputing the calorie target once. Works from the
+     * already loaded scalar fields, so the meals and goals collections are never touched.
+     */
+    @Transactional
+    public UserProfileDto patchProfile(User user, UserDto patch) {
+        if (patch.getAge() != null && patch.getAge() <= 0) {
+            throw new RuntimeException("Age must be positive");
+        }
+        if (patch.getWeight() != null && patch.getWeight() <= 0) {
+            throw new RuntimeException("Weight must be positive");
+        }
+        if (patch.getHeight() != null && patch.getHeight() <= 0) {
+            throw new RuntimeException("Height must be positive");
+        }
+
+        User merged = User.builder()
+                .id(user.getId())
+                .email(user.getEmail())
+                .username(user.getUsername())
+                .name(patch.getName() != null ? patch.getName() : user.getName())
+                .age(patch.getAge() != null ? patch.getAge() : user.getAge())
+                .weight(patch.getWeight() != null ? patch.getWeight() : user.getWeight())
+                .height(patch.getHeight() != null ? patch.getHeight() : user.getHeight())
+                .gender(patch.getGender() != null ? patch.getGender() : user.getGender())
+                .activityLevel(patch.getActivityLevel() != null ? patch.getActivityLevel() : user.getActivityLevel())
+                .goal(patch.getGoal() != null ? patch.getGoal() : user.getGoal())
+                .dailyCalorieTarget(user.getDailyCalorieTarget())
+                .build();
+        // The formula needs all three; until the profile has them the old target stands
+        if (merged.getAge() != null && merged.getWeight() != null && merged.getHeight() != null) {
+            merged.setDailyCalorieTarget(calculateDailyCalories(merged));
+        }
+
+        Map<String, Object> changes = new LinkedHashMap<>();
+        putIfChanged(changes, "name", user.getName(), merged.getName());
+        putIfChanged(changes, "age", user.getAge(), merged.getAge());
+        putIfChanged(changes, "weight", user.getWeight(), merged.getWeight());
+        putIfChanged(changes, "height", user.getHeight(), merged.getHeight());
+        putIfChanged(changes, "gender", user.getGender(), merged.getGender());
+        putIfChanged(changes, "activityLevel", user.getActivityLevel(), merged.getActivityLevel());
+        putIfChanged(changes, "goal", user.getGoal(), merged.getGoal());
+        putIfChanged(changes, "dailyCalorieTarget", user.getDailyCalorieTarget(), merged.getDailyCalorieTarget());
+
+        if (!changes.isEmpty()) {
+            StringBuilder jpql = new StringBuilder("UPDATE User u SET ");
+            changes.keySet().forEach(field -> jpql.append("u.").append(field).append(" = :").append(field).append(", "));
+            jpql.setLength(jpql.length() - 2);
+            jpql.append(" WHERE u.id = :id");
+
+            Query update = entityManager.createQuery(jpql.toString());
+            changes.forEach(update::setParameter);
+            update.setParameter("id", user.getId()).executeUpdate();
+            if (changes.containsKey("dailyCalorieTarget")) {
+                nutritionRollupService.retarget(List.of(user.getId()));
+            }
+            userSnapshotCache.evict(user.getId());
+        }
+        return toProfile(merged);
+    }
+
+    private static void putIfChanged(Map<String, Object> changes, String field, Object before, Object after) {
+        if (!Objects.equals(before, after)) {
+            changes.put(field, after);
+        }
+    }
+
+    // Disables the user now and deletes their data in the background
+    public AccountDeletion deleteUser(Long id) {
+        return accountDeletionService.requestDeletion(id);
+    }
+
+    public AccountDeletion getDeletionProgress(Long id) {
+        return accountDeletionService.getProgress(id);
+    }
+
+    public UserProfileDto toProfile(User user) {
+        return UserProfileDto.builder()
+                .id(user.getId())
+                .name(user.getName())
+                .username(user.getUsername())
+                .email(user.getEmail())
+                .age(user.getAge())
+                .weight(user.getWeight())
+                .height(user.getHeight())
+                .gender(user.getGender())
+                .activityLevel(user.getActivityLevel())
+                .goal(user.getGoal())
+                .dailyCalorieTarget(user.getDailyCalorieTarget())
+                .build();
     }
 
     // Calculate daily calories based on gender, activity, and goal
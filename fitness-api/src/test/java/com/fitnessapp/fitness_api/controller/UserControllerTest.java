@@ -0,0 +1,59 @@
+package com.fitnessapp.fitness_api.controller;
+
+import com.fitnessapp.fitness_api.entity.User;
+import com.fitnessapp.fitness_api.repository.UserRepository;
+import com.fitnessapp.fitness_api.security.JwtService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "app.jwt.secret=user-controller-test-secret-0123456789abcdef",
+        "app.nutrition.backfill-on-startup=false",
+        "app.admin.emails=Admin@Example.com"
+})
+@AutoConfigureMockMvc
+class UserControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void listingUsersIsAdminOnly() throws Exception {
+        mockMvc.perform(get("/api/users").header(HttpHeaders.AUTHORIZATION, bearer("member@example.com")))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(get("/api/users").header(HttpHeaders.AUTHORIZATION, bearer("admin@example.com")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content").isArray());
+    }
+
+    @Test
+    void badCursorIsAStructured400() throws Exception {
+        mockMvc.perform(get("/api/users").param("cursor", "<script>")
+                        .header(HttpHeaders.AUTHORIZATION, bearer("admin@example.com")))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("invalid_cursor"))
+                .andExpect(jsonPath("$.message").value("cursor must be the nextCursor of a previous page"));
+    }
+
+    private String bearer(String email) {
+        User user = userRepository.findByEmail(email)
+                .orElseGet(() -> userRepository.save(User.builder().email(email).password("unused").build()));
+        return "Bearer " + jwtService.generateToken(user);
+    }
+}
@@ -0,0 +1,197 @@
+package com.fitnessapp.fitness_api.security;
+
+import com.fitnessapp.fitness_api.entity.Food;
+import com.fitnessapp.fitness_api.entity.FoodCategory;
+import com.fitnessapp.fitness_api.entity.Goal;
+import com.fitnessapp.fitness_api.entity.GoalType;
+import com.fitnessapp.fitness_api.entity.Meal;
+import com.fitnessapp.fitness_api.entity.MealType;
+import com.fitnessapp.fitness_api.entity.User;
+import com.fitnessapp.fitness_api.repository.FoodRepository;
+import com.fitnessapp.fitness_api.repository.GoalRepository;
+import com.fitnessapp.fitness_api.repository.MealRepository;
+import com.fitnessapp.fitness_api.repository.UserRepository;
+import com.fitnessapp.fitness_api.service.NutritionRollupBackfill;
+import com.fitnessapp.fitness_api.service.NutritionRollupService;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Every statement of a whole request, filter included, for each meal and goal endpoint.
+ * The user row must be read exactly once per request once the snapshot cache knows the user.
+ * The rollup tiers are written with PostgreSQL upserts that H2 cannot run, so that service is
+ * mocked here; its reads are pinned by MealGoalReadQueryCountTest.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=500",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.fitnessapp.fitness_api.security.CurrentUserQueryCountTest$RecordingInspector",
+        "app.jwt.secret=current-user-query-count-test-secret-0123456789",
+        "app.nutrition.backfill-on-startup=false"
+})
+@AutoConfigureMockMvc
+class CurrentUserQueryCountTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 2, 10);
+    private static final AtomicInteger USERS = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private FoodRepository foodRepository;
+
+    @Autowired
+    private MealRepository mealRepository;
+
+    @Autowired
+    private GoalRepository goalRepository;
+
+    @MockitoBean
+    private NutritionRollupService nutritionRollupService;
+
+    @MockitoBean
+    private NutritionRollupBackfill nutritionRollupBackfill;
+
+    private User user;
+    private Food food;
+    private String bearer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(nutritionRollupBackfill.isRebuilt(anyLong())).thenReturn(true);
+        user = userRepository.save(User.builder()
+                .email("current-user-" + USERS.incrementAndGet() + "@example.com")
+                .password("unused")
+                .dailyCalorieTarget(2000)
+                .build());
+        food = foodRepository.save(Food.builder()
+                .name("Query count food " + USERS.get())
+                .calories(100.0).protein(10.0).carbs(10.0).fat(1.0).fiber(1.0)
+                .category(FoodCategory.GRAIN)
+                .isActive(true)
+                .build());
+        for (int i = 0; i < 5; i++) {
+            mealRepository.save(Meal.builder().user(user).food(food).foodName(food.getName())
+                    .mealType(MealType.LUNCH).quantity(100).calories(100).mealDate(DAY).build());
+        }
+        bearer = "Bearer " + jwtService.generateToken(user);
+        // The first request after login puts the user in the snapshot cache
+        mockMvc.perform(authorized(get("/api/goals"))).andExpect(status().isOk());
+    }
+
+    @Test
+    void mealReadsReadTheUserOnce() throws Exception {
+        assertStatements(get("/api/meals").param("date", DAY.toString()), 2);
+        assertStatements(get("/api/meals/all"), 2);
+        assertStatements(get("/api/meals/history").param("size", "3"), 2);
+        assertStatements(get("/api/meals/nutrition").param("date", DAY.toString()), 2);
+        assertStatements(get("/api/meals/nutrition/range")
+                .param("from", DAY.minusDays(6).toString()).param("to", DAY.toString()), 2);
+        assertStatements(get("/api/meals/stats/weekly"), 1);
+        assertStatements(get("/api/meals/stats/monthly"), 1);
+        assertStatements(get("/api/meals/quick-add"), 2);
+        assertStatements(get("/api/meals/plan"), 1);
+    }
+
+    @Test
+    void exportReadsTheUserOnce() throws Exception {
+        RecordingInspector.STATEMENTS.clear();
+        MvcResult started = mockMvc.perform(authorized(get("/api/meals/export"))).andReturn();
+        mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+
+        assertRequest(2);
+    }
+
+    @Test
+    void mealWritesReadTheUserOnce() throws Exception {
+        Long mealId = mealRepository.findIdsByUserId(user.getId(), PageRequest.of(0, 1)).get(0);
+        String meal = "{\"foodId\":" + food.getId() + ",\"mealType\":\"DINNER\",\"quantity\":150,\"mealDate\":\"" + DAY + "\"}";
+
+        // user, food, insert, then today's total for the reply
+        assertStatements(post("/api/meals/add").contentType(MediaType.APPLICATION_JSON).content(meal), 4);
+        // user, foods IN, one batched insert
+        assertStatements(post("/api/meals/batch").contentType(MediaType.APPLICATION_JSON)
+                .content("[" + meal + "," + meal + "]"), 3);
+        // user, meal locked, food, update
+        assertStatements(put("/api/meals/" + mealId).contentType(MediaType.APPLICATION_JSON).content(meal), 4);
+        // user, meal locked, delete
+        assertStatements(delete("/api/meals/" + mealId), 3);
+    }
+
+    @Test
+    void goalEndpointsReadTheUserOnce() throws Exception {
+        Long goalId = goalRepository.save(Goal.builder().description("run").targetWeight(70).type(GoalType.LOSS)
+                .user(user).build()).getId();
+
+        assertStatements(post("/api/goals/add").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"description\":\"lift\",\"targetWeight\":72,\"type\":\"GAIN\"}"), 2);
+        assertStatements(get("/api/goals"), 2);
+        // user, goal, delete
+        assertStatements(delete("/api/goals/" + goalId), 3);
+    }
+
+    private void assertStatements(MockHttpServletRequestBuilder request, int expected) throws Exception {
+        RecordingInspector.STATEMENTS.clear();
+        int status = mockMvc.perform(authorized(request)).andReturn().getResponse().getStatus();
+        assertThat(status).as(request.toString()).isLessThan(300);
+        assertRequest(expected);
+    }
+
+    private void assertRequest(int expected) {
+        // Pooled id allocation hits the sequence every 50 inserts, whichever request that lands in
+        List<String> statements = RecordingInspector.STATEMENTS.stream()
+                .filter(sql -> !sql.contains("next value for"))
+                .toList();
+        assertThat(statements).as("user reads").filteredOn(sql -> sql.contains(" from users ")).hasSize(1);
+        assertThat(statements).hasSize(expected);
+    }
+
+    private MockHttpServletRequestBuilder authorized(MockHttpServletRequestBuilder request) {
+        return request.header(HttpHeaders.AUTHORIZATION, bearer);
+    }
+
+    public static class RecordingInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql.toLowerCase());
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.fitnessapp.fitness_api.security;
+
+import com.fitnessapp.fitness_api.repository.RefreshTokenRepository;
+import com.fitnessapp.fitness_api.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TokenDenylistTest {
+
+    private RevokedTokenRepository revokedTokenRepository;
+    private TokenDenylist denylist;
+
+    @BeforeEach
+    void setUp() {
+        revokedTokenRepository = mock(RevokedTokenRepository.class);
+        denylist = new TokenDenylist(revokedTokenRepository, mock(RefreshTokenRepository.class), 1000, 0.001);
+    }
+
+    @Test
+    void checksTheDatabaseUntilTheFilterIsBuilt() {
+        when(revokedTokenRepository.existsByJti("revoked-elsewhere")).thenReturn(true);
+
+        assertThat(denylist.isRevoked("revoked-elsewhere")).isTrue();
+        assertThat(denylist.isRevoked("fresh")).isFalse();
+        verify(revokedTokenRepository).existsByJti("fresh");
+    }
+
+    @Test
+    void filterMissSkipsTheDatabaseOnceBuilt() {
+        when(revokedTokenRepository.findActiveJtis(any())).thenReturn(List.of("old"));
+        when(revokedTokenRepository.existsByJti("old")).thenReturn(true);
+        denylist.rebuild();
+
+        assertThat(denylist.isRevoked("old")).isTrue();
+        assertThat(denylist.isRevoked("fresh")).isFalse();
+        verify(revokedTokenRepository, never()).existsByJti("fresh");
+    }
+
+    @Test
+    void revocationBeforeTheRebuildSurvivesIt() {
+        // The rebuild read revoked_tokens before this revocation was stored
+        when(revokedTokenRepository.findActiveJtis(any())).thenReturn(List.of());
+        denylist.revoke("early", System.currentTimeMillis() + 60_000);
+        when(revokedTokenRepository.existsByJti("early")).thenReturn(true);
+
+        denylist.rebuild();
+
+        assertThat(denylist.isRevoked("early")).isTrue();
+    }
+}
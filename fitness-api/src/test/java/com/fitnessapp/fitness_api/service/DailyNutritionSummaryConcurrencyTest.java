@@ -0,0 +1,138 @@
+package com.fitnessapp.fitness_api.service;
+
+import com.fitnessapp.fitness_api.dto.MealRequest;
+import com.fitnessapp.fitness_api.entity.DailyNutritionSummary;
+import com.fitnessapp.fitness_api.entity.DailyNutritionSummaryId;
+import com.fitnessapp.fitness_api.entity.Food;
+import com.fitnessapp.fitness_api.entity.FoodCategory;
+import com.fitnessapp.fitness_api.entity.MealType;
+import com.fitnessapp.fitness_api.entity.User;
+import com.fitnessapp.fitness_api.repository.DailyNutritionSummaryRepository;
+import com.fitnessapp.fitness_api.repository.FoodRepository;
+import com.fitnessapp.fitness_api.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+// The summary upserts are PostgreSQL-specific, so this runs against a real server (needs Docker)
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "app.jwt.secret=daily-summary-concurrency-test-secret-0123456789",
+        "app.nutrition.backfill-on-startup=false"
+})
+@Testcontainers(disabledWithoutDocker = true)
+class DailyNutritionSummaryConcurrencyTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private MealService mealService;
+
+    @Autowired
+    private NutritionRollupService nutritionRollupService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private FoodRepository foodRepository;
+
+    @Autowired
+    private DailyNutritionSummaryRepository summaryRepository;
+
+    @Test
+    void parallelAddsToOneUserDayKeepExactTotals() throws Exception {
+        User user = userRepository.save(User.builder()
+                .email("summary-concurrency@example.com")
+                .password("unused")
+                .dailyCalorieTarget(2000)
+                .build());
+        Food food = foodRepository.save(Food.builder()
+                .name("Oats")
+                .calories(389.0).protein(16.9).carbs(66.3).fat(6.9).fiber(10.6)
+                .category(FoodCategory.CARBOHYDRATE)
+                .isActive(true)
+                .build());
+        LocalDate day = LocalDate.of(2026, 1, 15);
+        int threads = 16;
+        int mealsPerThread = 25;
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean adding = new AtomicBoolean(true);
+        List<Future<?>> adds = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                adds.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < mealsPerThread; i++) {
+                        mealService.addMeal(user, MealRequest.builder()
+                                .foodId(food.getId())
+                                .mealType(MealType.BREAKFAST)
+                                .quantity(50.0 + i)
+                                .mealDate(day)
+                                .build());
+                    }
+                    return null;
+                }));
+            }
+            // Rebuilds racing the adds must neither lose nor double-count a meal
+            Future<?> rebuilds = pool.submit(() -> {
+                start.await();
+                while (adding.get()) {
+                    nutritionRollupService.rebuild(user);
+                }
+                return null;
+            });
+            start.countDown();
+            for (Future<?> add : adds) {
+                add.get(2, TimeUnit.MINUTES);
+            }
+            adding.set(false);
+            rebuilds.get(2, TimeUnit.MINUTES);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        double calories = 0, protein = 0, carbs = 0, fat = 0, fiber = 0;
+        for (int i = 0; i < mealsPerThread; i++) {
+            double quantity = 50.0 + i;
+            calories += threads * food.getCaloriesForQuantity(quantity);
+            protein += threads * food.getProteinForQuantity(quantity);
+            carbs += threads * food.getCarbsForQuantity(quantity);
+            fat += threads * food.getFatForQuantity(quantity);
+            fiber += threads * food.getFiberForQuantity(quantity);
+        }
+
+        DailyNutritionSummary summary = summaryRepository.findById(new DailyNutritionSummaryId(user.getId(), day))
+                .orElseThrow();
+        assertThat(summary.getMealCount()).isEqualTo(threads * mealsPerThread);
+        assertThat(summary.getCalories()).isCloseTo(calories, within(1e-6));
+        assertThat(summary.getProtein()).isCloseTo(protein, within(1e-6));
+        assertThat(summary.getCarbs()).isCloseTo(carbs, within(1e-6));
+        assertThat(summary.getFat()).isCloseTo(fat, within(1e-6));
+        assertThat(summary.getFiber()).isCloseTo(fiber, within(1e-6));
+
+        // The read path agrees with the row
+        assertThat(mealService.getDailyNutrition(user, day).getMealCount()).isEqualTo(threads * mealsPerThread);
+    }
+}
@@ -0,0 +1,120 @@
+package com.fitnessapp.fitness_api.service;
+
+import com.fitnessapp.fitness_api.dto.FoodDto;
+import com.fitnessapp.fitness_api.entity.FoodCategory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FoodCatalogTest {
+
+    private static final FoodCategory[] CATEGORIES = FoodCategory.values();
+
+    @Test
+    void rangeQueriesUseSortedColumns() {
+        FoodCatalog catalog = new FoodCatalog(new SimpleMeterRegistry());
+        catalog.replaceAll(List.of(
+                food(1, 300, 5, FoodCategory.CARBOHYDRATE),
+                food(2, 120, 25, FoodCategory.PROTEIN),
+                food(3, 40, 2, FoodCategory.VEGETABLE),
+                food(4, 150, 15, FoodCategory.PROTEIN)));
+        FoodCatalog.Snapshot snapshot = catalog.snapshot();
+
+        assertThat(snapshot.caloriesAtMost(150.0)).extracting(FoodDto::getId).containsExactly(3L, 2L, 4L);
+        assertThat(snapshot.caloriesAtMost(10.0)).isEmpty();
+        assertThat(snapshot.proteinAtLeast(15.0)).extracting(FoodDto::getId).containsExactly(2L, 4L);
+        assertThat(snapshot.proteinAtLeast(0.0)).hasSize(4);
+        assertThat(snapshot.byCategory(FoodCategory.PROTEIN)).extracting(FoodDto::getId).containsExactly(2L, 4L);
+    }
+
+    @Test
+    void splicedWritesMatchAFullRebuild() {
+        Random random = new Random(42);
+        Map<Long, FoodDto> active = new LinkedHashMap<>();
+        for (long id = 1; id <= 200; id++) {
+            active.put(id, randomFood(random, id));
+        }
+        FoodCatalog catalog = new FoodCatalog(new SimpleMeterRegistry());
+        catalog.replaceAll(new ArrayList<>(active.values()));
+
+        for (int step = 0; step < 500; step++) {
+            long id = 1 + random.nextInt(260);
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    catalog.remove(id);
+                    active.remove(id);
+                }
+                case 1 -> {
+                    FoodDto inactive = randomFood(random, id);
+                    inactive.setIsActive(false);
+                    catalog.upsert(inactive);
+                    active.remove(id);
+                }
+                default -> {
+                    FoodDto food = randomFood(random, id);
+                    catalog.upsert(food);
+                    active.put(id, food);
+                }
+            }
+            assertSameIndexes(catalog.snapshot(), new FoodCatalog.Snapshot(0, new ArrayList<>(active.values())));
+        }
+    }
+
+    private static void assertSameIndexes(FoodCatalog.Snapshot spliced, FoodCatalog.Snapshot rebuilt) {
+        assertThat(spliced.all()).extracting(FoodDto::getId)
+                .containsExactlyElementsOf(rebuilt.all().stream().map(FoodDto::getId).toList());
+        for (int m = 0; m < FoodCatalog.Snapshot.NUTRIENTS; m++) {
+            assertThat(spliced.sortedValues(m)).containsExactly(rebuilt.sortedValues(m));
+            int[] order = spliced.ascending(m);
+            for (int i = 0; i < order.length; i++) {
+                assertThat(columnOf(spliced, m)[order[i]]).isEqualTo(spliced.sortedValues(m)[i]);
+            }
+        }
+        for (FoodCategory category : CATEGORIES) {
+            assertThat(spliced.byCategory(category)).extracting(FoodDto::getId)
+                    .containsExactlyElementsOf(rebuilt.byCategory(category).stream().map(FoodDto::getId).toList());
+            assertThat(spliced.categoryBits(category)).containsExactly(rebuilt.categoryBits(category));
+        }
+        assertThat(spliced.caloriesAtMost(200.0)).hasSameSizeAs(rebuilt.caloriesAtMost(200.0));
+        assertThat(spliced.proteinAtLeast(10.0)).hasSameSizeAs(rebuilt.proteinAtLeast(10.0));
+    }
+
+    private static double[] columnOf(FoodCatalog.Snapshot snapshot, int nutrient) {
+        return switch (nutrient) {
+            case FoodCatalog.Snapshot.CALORIES -> snapshot.caloriesColumn();
+            case FoodCatalog.Snapshot.PROTEIN -> snapshot.proteinColumn();
+            case FoodCatalog.Snapshot.CARBS -> snapshot.carbsColumn();
+            case FoodCatalog.Snapshot.FAT -> snapshot.fatColumn();
+            default -> snapshot.fiberColumn();
+        };
+    }
+
+    private static FoodDto randomFood(Random random, long id) {
+        FoodDto food = food(id, random.nextInt(60) * 10, random.nextInt(30), CATEGORIES[random.nextInt(CATEGORIES.length)]);
+        food.setCarbs((double) random.nextInt(80));
+        food.setFat((double) random.nextInt(40));
+        food.setFiber((double) random.nextInt(15));
+        return food;
+    }
+
+    private static FoodDto food(long id, double calories, double protein, FoodCategory category) {
+        return FoodDto.builder()
+                .id(id)
+                .name("food-" + id)
+                .calories(calories)
+                .protein(protein)
+                .carbs(0.0)
+                .fat(0.0)
+                .fiber(0.0)
+                .category(category)
+                .isActive(true)
+                .build();
+    }
+}
@@ -0,0 +1,115 @@
+package com.fitnessapp.fitness_api.service;
+
+import com.fitnessapp.fitness_api.dto.FoodDto;
+import com.fitnessapp.fitness_api.dto.FoodFilterRequest;
+import com.fitnessapp.fitness_api.dto.FoodPageDto;
+import com.fitnessapp.fitness_api.entity.FoodCategory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FoodFilterServiceTest {
+
+    private FoodFilterService filterService;
+    private List<FoodDto> foods;
+
+    @BeforeEach
+    void setUp() {
+        // 150 foods, so the bitsets span several words
+        foods = new ArrayList<>();
+        FoodCategory[] categories = FoodCategory.values();
+        for (long id = 1; id <= 150; id++) {
+            foods.add(FoodDto.builder()
+                    .id(id)
+                    .name("food-" + id)
+                    .calories((double) (id * 7 % 500))
+                    .protein((double) (id % 40))
+                    .carbs((double) (id * 3 % 90))
+                    .fat((double) (id % 25))
+                    .fiber((double) (id % 12))
+                    .category(categories[(int) (id % categories.length)])
+                    .isActive(true)
+                    .build());
+        }
+        FoodCatalog catalog = new FoodCatalog(new SimpleMeterRegistry());
+        catalog.replaceAll(foods);
+        FoodService foodService = mock(FoodService.class);
+        when(foodService.catalog()).thenReturn(catalog.snapshot());
+        filterService = new FoodFilterService(foodService);
+    }
+
+    @Test
+    void intersectsInclusiveRangesAndCategories() {
+        FoodFilterRequest request = new FoodFilterRequest();
+        request.setMinCalories(100.0);
+        request.setMaxCalories(300.0);
+        request.setMinProtein(10.0);
+        request.setCategories(List.of(FoodCategory.PROTEIN, FoodCategory.VEGETABLE));
+        request.setSize(500);
+
+        FoodPageDto page = filterService.filter(request);
+
+        List<Long> expected = foods.stream()
+                .filter(f -> f.getCalories() >= 100 && f.getCalories() <= 300)
+                .filter(f -> f.getProtein() >= 10)
+                .filter(f -> f.getCategory() == FoodCategory.PROTEIN || f.getCategory() == FoodCategory.VEGETABLE)
+                .map(FoodDto::getId)
+                .toList();
+        assertThat(expected).isNotEmpty();
+        assertThat(page.getTotalElements()).isEqualTo(expected.size());
+        assertThat(page.getContent()).extracting(FoodDto::getId).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void boundsAreInclusive() {
+        FoodFilterRequest request = new FoodFilterRequest();
+        request.setMinFat(24.0);
+        request.setMaxFat(24.0);
+
+        FoodPageDto page = filterService.filter(request);
+
+        assertThat(page.getContent()).isNotEmpty().allSatisfy(f -> assertThat(f.getFat()).isEqualTo(24.0));
+        assertThat(page.getTotalElements()).isEqualTo(foods.stream().filter(f -> f.getFat() == 24.0).count());
+    }
+
+    @Test
+    void sortsAndPagesBySortNutrient() {
+        FoodFilterRequest request = new FoodFilterRequest();
+        request.setMaxFiber(5.0);
+        request.setSort("calories");
+        request.setDirection("desc");
+        request.setSize(10);
+
+        List<FoodDto> all = foods.stream().filter(f -> f.getFiber() <= 5).toList();
+        List<Double> pages = new ArrayList<>();
+        for (int p = 0; p * 10 < all.size(); p++) {
+            request.setPage(p);
+            FoodPageDto page = filterService.filter(request);
+            assertThat(page.getTotalElements()).isEqualTo(all.size());
+            page.getContent().forEach(f -> pages.add(f.getCalories()));
+        }
+
+        assertThat(pages).hasSize(all.size());
+        assertThat(pages).isSortedAccordingTo((a, b) -> Double.compare(b, a));
+    }
+
+    @Test
+    void noFiltersReturnsEverythingInIdOrder() {
+        FoodFilterRequest request = new FoodFilterRequest();
+        request.setSize(20);
+        request.setPage(2);
+
+        FoodPageDto page = filterService.filter(request);
+
+        assertThat(page.getTotalElements()).isEqualTo(150);
+        assertThat(page.getContent()).extracting(FoodDto::getId)
+                .containsExactlyElementsOf(foods.subList(40, 60).stream().map(FoodDto::getId).toList());
+    }
+}
@@ -0,0 +1,64 @@
+package com.fitnessapp.fitness_api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fitnessapp.fitness_api.dto.FoodImportResult;
+import com.fitnessapp.fitness_api.entity.Food;
+import com.fitnessapp.fitness_api.entity.FoodCategory;
+import com.fitnessapp.fitness_api.repository.FoodRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+// The import commits its own batches, so the test must not wrap it in a transaction
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class FoodImportConflictTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockitoSpyBean
+    private FoodRepository foodRepository;
+
+    @Test
+    void nameStoredAfterTheCheckSkipsOnlyThatRow() throws Exception {
+        foodRepository.save(Food.builder().name("Oats").calories(389.0).protein(17.0).carbs(66.0).fat(7.0).fiber(11.0)
+                .category(FoodCategory.GRAIN).isActive(true).build());
+        // As if "Oats" had been committed by someone else between the check and the insert
+        doReturn(List.of()).when(foodRepository).findExistingNames(any());
+        FoodService foodService = mock(FoodService.class);
+        FoodImportService importService = new FoodImportService(foodRepository, foodService, entityManager,
+                transactionManager, new ObjectMapper(), 100);
+
+        String csv = """
+                name,calories,protein,carbs,fat
+                Barley,354,12,73,2.3
+                Oats,389,17,66,7
+                Quinoa,368,14,64,6
+                """;
+        FoodImportResult result = importService.importFoods(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), FoodImportService.Format.CSV);
+
+        assertThat(result.getInserted()).isEqualTo(2);
+        assertThat(result.getDuplicates()).isEqualTo(1);
+        assertThat(foodRepository.findAll()).extracting(Food::getName)
+                .containsExactlyInAnyOrder("Oats", "Barley", "Quinoa");
+    }
+}
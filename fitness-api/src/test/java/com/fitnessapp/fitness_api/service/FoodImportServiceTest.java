@@ -0,0 +1,38 @@
+package com.fitnessapp.fitness_api.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FoodImportServiceTest {
+
+    @Test
+    void splitsPlainFields() {
+        assertThat(FoodImportService.parseCsvLine("Apple,52,0.3,14,0.2,2.4,FRUIT"))
+                .containsExactly("Apple", "52", "0.3", "14", "0.2", "2.4", "FRUIT");
+    }
+
+    @Test
+    void keepsCommasInsideQuotes() {
+        assertThat(FoodImportService.parseCsvLine("\"Chicken, roasted\",165,FRUIT"))
+                .containsExactly("Chicken, roasted", "165", "FRUIT");
+    }
+
+    @Test
+    void unescapesDoubledQuotes() {
+        assertThat(FoodImportService.parseCsvLine("\"The \"\"best\"\" oats\",389"))
+                .containsExactly("The \"best\" oats", "389");
+    }
+
+    @Test
+    void keepsEmptyFields() {
+        assertThat(FoodImportService.parseCsvLine("Rice,,130,")).containsExactly("Rice", "", "130", "");
+        assertThat(FoodImportService.parseCsvLine("")).containsExactly("");
+        assertThat(FoodImportService.parseCsvLine("\"\",1")).containsExactly("", "1");
+    }
+
+    @Test
+    void leavesSurroundingSpacesToTheCaller() {
+        assertThat(FoodImportService.parseCsvLine(" name , calories ")).containsExactly(" name ", " calories ");
+    }
+}
@@ -0,0 +1,69 @@
+package com.fitnessapp.fitness_api.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FoodRecommendationEngineTest {
+
+    @Test
+    void topKReturnsHighestScoresBestFirst() {
+        double[] scores = {0.5, 3.0, -1.0, 2.0, 2.5, 0.0};
+
+        assertThat(FoodRecommendationEngine.topK(scores, 3)).containsExactly(1, 4, 3);
+        assertThat(FoodRecommendationEngine.topK(scores, 1)).containsExactly(1);
+    }
+
+    @Test
+    void topKHandlesEdgeSizes() {
+        double[] scores = {1.0, 2.0};
+
+        assertThat(FoodRecommendationEngine.topK(scores, 0)).isEmpty();
+        assertThat(FoodRecommendationEngine.topK(scores, 2)).containsExactly(1, 0);
+        assertThat(FoodRecommendationEngine.topK(new double[0], 0)).isEmpty();
+    }
+
+    @Test
+    void topKMatchesAFullSort() {
+        Random random = new Random(7);
+        double[] scores = new double[5_000];
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = random.nextGaussian();
+        }
+
+        int[] expected = IntStream.range(0, scores.length).boxed()
+                .sorted(Comparator.comparingDouble((Integer i) -> scores[i]).reversed())
+                .limit(50)
+                .mapToInt(Integer::intValue)
+                .toArray();
+        assertThat(FoodRecommendationEngine.topK(scores, 50)).containsExactly(expected);
+    }
+
+    @Test
+    void scoreRewardsFillingGapsAndPenalizesOvershoot() {
+        double[] calories = {100, 100, 900};
+        double[] protein = {30, 0, 30};
+        double[] carbs = {0, 0, 0};
+        double[] fat = {0, 0, 0};
+
+        double[] scores = FoodRecommendationEngine.score(calories, protein, carbs, fat, 300, 60, 0, 0);
+
+        assertThat(scores[0]).isEqualTo(0.5);  // fills half of the protein gap
+        assertThat(scores[1]).isZero();         // fills nothing
+        assertThat(scores[2]).isLessThan(scores[0]);
+        assertThat(Arrays.stream(scores).max().orElseThrow()).isEqualTo(scores[0]);
+    }
+
+    @Test
+    void closedGapsNeitherHelpNorHurt() {
+        double[] scores = FoodRecommendationEngine.score(
+                new double[] {50}, new double[] {40}, new double[] {40}, new double[] {40}, 500, 0, 0, 0);
+
+        assertThat(scores[0]).isZero();
+    }
+}
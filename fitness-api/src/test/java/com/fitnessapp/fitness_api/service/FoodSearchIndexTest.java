@@ -0,0 +1,82 @@
+package com.fitnessapp.fitness_api.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FoodSearchIndexTest {
+
+    private FoodSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new FoodSearchIndex();
+        index.rebuild(Map.of(
+                1L, "Chicken Breast",
+                2L, "Chickpeas",
+                3L, "Brown Rice",
+                4L, "Greek Yogurt",
+                5L, "Peanut Butter",
+                6L, "Chicken Thigh, roasted"));
+    }
+
+    @Test
+    void prefixMatchesTheStartOfAnyWord() {
+        assertThat(index.search("chi", FoodSearchIndex.Mode.PREFIX, 10)).containsExactlyInAnyOrder(1L, 2L, 6L);
+        assertThat(index.search("rice", FoodSearchIndex.Mode.PREFIX, 10)).containsExactly(3L);
+        // "ice" is inside "rice" but does not start a word
+        assertThat(index.search("ice", FoodSearchIndex.Mode.PREFIX, 10)).isEmpty();
+    }
+
+    @Test
+    void everyQueryWordMustMatch() {
+        assertThat(index.search("chicken thi", FoodSearchIndex.Mode.PREFIX, 10)).containsExactly(6L);
+        assertThat(index.search("chicken rice", FoodSearchIndex.Mode.PREFIX, 10)).isEmpty();
+    }
+
+    @Test
+    void exactWordRanksAboveLongerPrefixMatch() {
+        index.put(7L, "Pea");
+        assertThat(index.search("pea", FoodSearchIndex.Mode.PREFIX, 10)).startsWith(7L).contains(5L);
+    }
+
+    @Test
+    void containsFindsSubstrings() {
+        assertThat(index.search("ogur", FoodSearchIndex.Mode.CONTAINS, 10)).containsExactly(4L);
+        assertThat(index.search("ogur", FoodSearchIndex.Mode.PREFIX, 10)).isEmpty();
+    }
+
+    @Test
+    void fuzzyToleratesTypos() {
+        assertThat(index.search("chiken", FoodSearchIndex.Mode.FUZZY, 10)).containsExactlyInAnyOrder(1L, 6L);
+        assertThat(index.search("yoghurt", FoodSearchIndex.Mode.FUZZY, 10)).containsExactly(4L);
+        assertThat(index.search("chiken", FoodSearchIndex.Mode.PREFIX, 10)).isEmpty();
+        assertThat(index.search("xyzzy", FoodSearchIndex.Mode.FUZZY, 10)).isEmpty();
+    }
+
+    @Test
+    void limitKeepsTheBestMatches() {
+        assertThat(index.search("chicken", FoodSearchIndex.Mode.PREFIX, 1)).hasSize(1).containsAnyOf(1L, 6L);
+        assertThat(index.search("chicken", FoodSearchIndex.Mode.PREFIX, 0)).isEmpty();
+    }
+
+    @Test
+    void writesKeepTheIndexInStep() {
+        index.put(2L, "Lentils");
+        assertThat(index.search("chickp", FoodSearchIndex.Mode.PREFIX, 10)).isEmpty();
+        assertThat(index.search("lent", FoodSearchIndex.Mode.PREFIX, 10)).containsExactly(2L);
+
+        index.remove(4L);
+        assertThat(index.search("greek", FoodSearchIndex.Mode.FUZZY, 10)).isEmpty();
+    }
+
+    @Test
+    void boundedEditDistanceStopsAtTheBound() {
+        assertThat(FoodSearchIndex.boundedEditDistance("kitten", "sitting", 3)).isEqualTo(3);
+        assertThat(FoodSearchIndex.boundedEditDistance("kitten", "sitting", 1)).isEqualTo(2);
+        assertThat(FoodSearchIndex.boundedEditDistance("rice", "rice", 0)).isZero();
+    }
+}
@@ -0,0 +1,109 @@
+package com.fitnessapp.fitness_api.service;
+
+import com.fitnessapp.fitness_api.entity.User;
+import com.fitnessapp.fitness_api.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Exports millions of meals from a real server (needs Docker) and checks the heap does not grow with them
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "app.jwt.secret=meal-export-test-secret-0123456789-abcdefgh",
+        "app.nutrition.backfill-on-startup=false"
+})
+@Testcontainers(disabledWithoutDocker = true)
+class MealExportServiceTest {
+
+    private static final int MEALS = 2_000_000;
+    private static final int UNDATED = 10;
+    // Two million MealDtos alone would take several hundred MB
+    private static final long MAX_RETAINED_GROWTH = 64L << 20;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private MealExportService exportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void streamsMillionsOfMealsInBoundedMemory() throws Exception {
+        User user = userRepository.save(User.builder()
+                .email("export@example.com")
+                .password("unused")
+                .dailyCalorieTarget(2000)
+                .build());
+        jdbcTemplate.update("""
+                INSERT INTO meals (id, user_id, food_name, meal_type, quantity, calories, protein, carbs, fat, fiber,
+                                   meal_date, created_at)
+                SELECT g, ?, 'Meal ' || g, 'LUNCH', 100, 250, 10, 30, 8, 4,
+                       CASE WHEN g <= ? THEN NULL ELSE DATE '2020-01-01' + (g % 2000) END, now()
+                FROM generate_series(1, ?) AS g
+                """, user.getId(), UNDATED, MEALS + UNDATED);
+
+        List<MemoryPoolMXBean> retained = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .filter(pool -> pool.getName().contains("Old") || pool.getName().contains("Tenured"))
+                .toList();
+        System.gc();
+        long before = used(retained);
+        retained.forEach(MemoryPoolMXBean::resetPeakUsage);
+
+        CountingOutputStream out = new CountingOutputStream();
+        exportService.export(user.getId(), MealExportService.Format.CSV, false, out);
+
+        // Header line plus one line per dated meal; undated meals are not exported
+        assertThat(out.lines - 1).isEqualTo(MEALS);
+        assertThat(out.bytes).isGreaterThan((long) MEALS * 50);
+        long peak = retained.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+        assertThat(peak - before).as("old generation growth").isLessThan(MAX_RETAINED_GROWTH);
+    }
+
+    private static long used(List<MemoryPoolMXBean> pools) {
+        return pools.stream().mapToLong(pool -> pool.getUsage().getUsed()).sum();
+    }
+
+    // Counts what the client would receive without keeping it
+    private static final class CountingOutputStream extends OutputStream {
+        long bytes;
+        long lines;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+            if (b == '\n') {
+                lines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') {
+                    lines++;
+                }
+            }
+        }
+    }
+}
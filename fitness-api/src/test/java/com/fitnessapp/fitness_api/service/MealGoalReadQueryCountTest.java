@@ -0,0 +1,243 @@
+package com.fitnessapp.fitness_api.service;
+
+import com.fitnessapp.fitness_api.dto.DailyNutritionDto;
+import com.fitnessapp.fitness_api.dto.GoalDto;
+import com.fitnessapp.fitness_api.dto.MealDto;
+import com.fitnessapp.fitness_api.dto.MealHistoryRequest;
+import com.fitnessapp.fitness_api.dto.MealPageDto;
+import com.fitnessapp.fitness_api.dto.NutritionPeriodDto;
+import com.fitnessapp.fitness_api.entity.DailyNutritionSummary;
+import com.fitnessapp.fitness_api.entity.DailyNutritionSummaryId;
+import com.fitnessapp.fitness_api.entity.Food;
+import com.fitnessapp.fitness_api.entity.FoodCategory;
+import com.fitnessapp.fitness_api.entity.Goal;
+import com.fitnessapp.fitness_api.entity.GoalType;
+import com.fitnessapp.fitness_api.entity.Meal;
+import com.fitnessapp.fitness_api.entity.MealType;
+import com.fitnessapp.fitness_api.entity.NutritionRollup;
+import com.fitnessapp.fitness_api.entity.NutritionRollupId;
+import com.fitnessapp.fitness_api.entity.RollupPeriod;
+import com.fitnessapp.fitness_api.entity.User;
+import com.fitnessapp.fitness_api.repository.DailyNutritionSummaryRepository;
+import com.fitnessapp.fitness_api.repository.FoodRepository;
+import com.fitnessapp.fitness_api.repository.GoalRepository;
+import com.fitnessapp.fitness_api.repository.MealRepository;
+import com.fitnessapp.fitness_api.repository.NutritionRollupRepository;
+import com.fitnessapp.fitness_api.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Pins the statements and loaded entities of the meal and goal read paths, with enough meals that an N+1 would show
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class MealGoalReadQueryCountTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 2, 10);
+    private static final int MEALS = 30;
+    private static final int GOALS = 3;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private MealRepository mealRepository;
+
+    @Autowired
+    private FoodRepository foodRepository;
+
+    @Autowired
+    private GoalRepository goalRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DailyNutritionSummaryRepository summaryRepository;
+
+    @Autowired
+    private NutritionRollupRepository rollupRepository;
+
+    private NutritionRollupBackfill backfill;
+    private MealService mealService;
+    private MealHistoryService mealHistoryService;
+    private NutritionRollupService nutritionRollupService;
+    private Statistics statistics;
+    private User user;
+    private Long mealId;
+    private Long goalId;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        MealWriteBehind mealWriteBehind = mock(MealWriteBehind.class);
+        when(mealWriteBehind.consistentRead(any())).thenAnswer(invocation -> ((Supplier<Object>) invocation.getArgument(0)).get());
+        when(mealWriteBehind.pending(anyLong())).thenReturn(List.of());
+        backfill = mock(NutritionRollupBackfill.class);
+        when(backfill.isRebuilt(anyLong())).thenReturn(true);
+        nutritionRollupService = new NutritionRollupService(summaryRepository, rollupRepository, userRepository);
+        mealService = new MealService(mealRepository, foodRepository, summaryRepository, nutritionRollupService,
+                backfill, mealWriteBehind, mock(QuickAddService.class));
+        mealHistoryService = new MealHistoryService(entityManager, 50, 200);
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        user = User.builder().email("reads@example.com").password("unused").dailyCalorieTarget(2000).build();
+        entityManager.persist(user);
+        Food food = Food.builder()
+                .name("Lentils")
+                .calories(116.0).protein(9.0).carbs(20.0).fat(0.4).fiber(7.9)
+                .category(FoodCategory.PROTEIN)
+                .isActive(true)
+                .build();
+        entityManager.persist(food);
+        for (int i = 0; i < MEALS; i++) {
+            Meal meal = Meal.builder()
+                    .user(user)
+                    .food(food)
+                    .foodName(food.getName())
+                    .mealType(MealType.values()[i % MealType.values().length])
+                    .quantity(100)
+                    .calories(116)
+                    .mealDate(i < MEALS / 2 ? DAY : DAY.minusDays(i))
+                    .build();
+            entityManager.persist(meal);
+            mealId = meal.getId();
+        }
+        for (int i = 0; i < GOALS; i++) {
+            Goal goal = Goal.builder().description("goal " + i).targetWeight(70).type(GoalType.LOSS).user(user).build();
+            entityManager.persist(goal);
+            goalId = goal.getId();
+        }
+        entityManager.persist(DailyNutritionSummary.builder()
+                .id(new DailyNutritionSummaryId(user.getId(), DAY)).calories(116.0 * MEALS / 2).mealCount(MEALS / 2)
+                .build());
+        entityManager.persist(NutritionRollup.builder()
+                .id(new NutritionRollupId(user.getId(), RollupPeriod.WEEK, NutritionRollupService.weekStart(DAY)))
+                .calories(116.0 * MEALS / 2).mealCount(MEALS / 2).daysLogged(1)
+                .build());
+        entityManager.flush();
+        // The request's User comes from CurrentUserHolder; everything else must come from the reads below
+        entityManager.clear();
+        user = userRepository.findById(user.getId()).orElseThrow();
+    }
+
+    @Test
+    void mealsForDateIsOneProjection() {
+        List<MealDto> meals = measure(() -> mealService.getMealsForDate(user, DAY));
+
+        assertThat(meals).hasSize(MEALS / 2);
+        assertCost(1, 0);
+    }
+
+    @Test
+    void allMealsIsOneProjection() {
+        List<MealDto> meals = measure(() -> mealService.getMealsForUser(user));
+
+        assertThat(meals).hasSize(MEALS);
+        assertCost(1, 0);
+    }
+
+    @Test
+    void dailyNutritionReadsTheSummaryRow() {
+        DailyNutritionDto nutrition = measure(() -> mealService.getDailyNutrition(user, DAY));
+
+        assertThat(nutrition.getMealCount()).isEqualTo(MEALS / 2);
+        assertCost(1, 1);
+    }
+
+    @Test
+    void dailyNutritionBeforeBackfillIsOneAggregate() {
+        when(backfill.isRebuilt(user.getId())).thenReturn(false);
+
+        DailyNutritionDto nutrition = measure(() -> mealService.getDailyNutrition(user, DAY));
+
+        assertThat(nutrition.getMealCount()).isEqualTo(MEALS / 2);
+        assertCost(1, 0);
+    }
+
+    @Test
+    void nutritionRangeIsOneAggregate() {
+        List<DailyNutritionDto> series = measure(() -> mealService.getNutritionRange(user, DAY.minusDays(40), DAY, true));
+
+        assertThat(series.stream().mapToInt(DailyNutritionDto::getMealCount).sum()).isEqualTo(MEALS);
+        assertCost(1, 0);
+    }
+
+    @Test
+    void weeklyStatsReadOnlyTheWeekRows() {
+        List<NutritionPeriodDto> weeks = measure(() -> nutritionRollupService.weekly(user, DAY.minusWeeks(3), DAY));
+
+        assertThat(weeks).hasSize(4);
+        assertCost(1, 1);
+    }
+
+    @Test
+    void historyPageIsOneProjection() {
+        MealHistoryRequest request = new MealHistoryRequest();
+        request.setSize(10);
+
+        MealPageDto page = measure(() -> mealHistoryService.history(user, request));
+
+        assertThat(page.getContent()).hasSize(10);
+        assertCost(1, 0);
+    }
+
+    @Test
+    void goalsAreOneProjection() {
+        List<GoalDto> goals = measure(() -> goalRepository.findDtosByUserId(user.getId()));
+
+        assertThat(goals).hasSize(GOALS).allSatisfy(g -> assertThat(g.getUserId()).isEqualTo(user.getId()));
+        assertCost(1, 0);
+    }
+
+    @Test
+    void goalOwnerCheckLeavesTheUserUnloaded() {
+        entityManager.clear(); // a managed User would be returned in place of the proxy
+        Goal goal = measure(() -> goalRepository.findById(goalId).orElseThrow());
+
+        // GoalController.deleteMyGoal compares owner ids through the proxy
+        assertThat(goal.getUser().getId()).isEqualTo(user.getId());
+        assertThat(Hibernate.isInitialized(goal.getUser())).isFalse();
+        assertCost(1, 1);
+    }
+
+    @Test
+    void mealOwnerCheckLeavesUserAndFoodUnloaded() {
+        entityManager.clear();
+        Meal meal = measure(() -> mealRepository.findByIdForUpdate(mealId).orElseThrow());
+
+        // updateMeal and deleteMeal compare owner ids through the proxy
+        assertThat(meal.getUser().getId()).isEqualTo(user.getId());
+        assertThat(Hibernate.isInitialized(meal.getUser())).isFalse();
+        assertThat(Hibernate.isInitialized(meal.getFood())).isFalse();
+        assertCost(1, 1);
+    }
+
+    private <T> T measure(Supplier<T> read) {
+        statistics.clear();
+        T result = read.get();
+        entityManager.flush();
+        return result;
+    }
+
+    private void assertCost(long statements, long entities) {
+        assertThat(statistics.getPrepareStatementCount()).as("statements").isEqualTo(statements);
+        assertThat(statistics.getEntityLoadCount()).as("entities loaded").isEqualTo(entities);
+        assertThat(statistics.getEntityStatistics(User.class.getName()).getLoadCount()).as("users loaded").isZero();
+        assertThat(statistics.getEntityStatistics(Food.class.getName()).getLoadCount()).as("foods loaded").isZero();
+    }
+}
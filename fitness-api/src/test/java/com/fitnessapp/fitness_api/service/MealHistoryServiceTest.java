@@ -0,0 +1,153 @@
+package com.fitnessapp.fitness_api.service;
+
+import com.fitnessapp.fitness_api.dto.MealDto;
+import com.fitnessapp.fitness_api.dto.MealHistoryRequest;
+import com.fitnessapp.fitness_api.dto.MealPageDto;
+import com.fitnessapp.fitness_api.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MealHistoryServiceTest {
+
+    private static final LocalDate START = LocalDate.of(2026, 3, 1);
+
+    private final List<MealDto> meals = new ArrayList<>();
+    private final List<String> queries = new ArrayList<>();
+    private MealHistoryService historyService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        // Several meals per day, ids not in date order, so the id tie-break matters
+        long id = 1;
+        for (int day = 0; day < 10; day++) {
+            for (int i = 0; i < 3; i++) {
+                meals.add(MealDto.builder().id(id++ * 7 % 97).mealDate(START.plusDays((day * 3) % 10)).build());
+            }
+        }
+        historyService = new MealHistoryService(mockedEntityManager(), 50, 200);
+        user = User.builder().id(1L).build();
+    }
+
+    @Test
+    void pagesWalkEveryMealOnceNewestFirst() {
+        List<MealDto> seen = new ArrayList<>();
+        MealHistoryRequest request = new MealHistoryRequest();
+        request.setSize(4);
+        int pages = 0;
+        MealPageDto page;
+        do {
+            page = historyService.history(user, request);
+            assertThat(page.getContent()).hasSizeLessThanOrEqualTo(4);
+            seen.addAll(page.getContent());
+            request.setCursor(page.getNextCursor());
+            pages++;
+        } while (page.isHasMore());
+
+        assertThat(pages).isEqualTo(8);
+        assertThat(page.getNextCursor()).isNull();
+        assertThat(seen).containsExactlyElementsOf(meals.stream().sorted(NEWEST_FIRST).toList());
+    }
+
+    @Test
+    void cursorIsTheDateAndIdOfTheLastRow() {
+        MealHistoryRequest request = new MealHistoryRequest();
+        request.setSize(5);
+
+        MealPageDto page = historyService.history(user, request);
+
+        MealDto last = page.getContent().get(4);
+        assertThat(page.isHasMore()).isTrue();
+        assertThat(page.getNextCursor()).isEqualTo(last.getMealDate() + ":" + last.getId());
+        assertThat(queries.get(0)).doesNotContain(":cursorDate");
+    }
+
+    @Test
+    void exactFinalPageHasNoCursor() {
+        MealHistoryRequest request = new MealHistoryRequest();
+        request.setSize(30);
+
+        MealPageDto page = historyService.history(user, request);
+
+        assertThat(page.getContent()).hasSize(30);
+        assertThat(page.isHasMore()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void pageSizeIsClamped() {
+        historyService = new MealHistoryService(mockedEntityManager(), 50, 10);
+        MealHistoryRequest request = new MealHistoryRequest();
+        request.setSize(1000);
+
+        assertThat(historyService.history(user, request).getContent()).hasSize(10);
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        for (String cursor : List.of("garbage", "2026-03-01", "2026-13-01:5", "2026-03-01:x")) {
+            MealHistoryRequest request = new MealHistoryRequest();
+            request.setCursor(cursor);
+            assertThatThrownBy(() -> historyService.history(user, request))
+                    .isInstanceOf(RuntimeException.class)
+                    .hasMessage("Invalid cursor: " + cursor);
+        }
+    }
+
+    private static final Comparator<MealDto> NEWEST_FIRST =
+            Comparator.comparing(MealDto::getMealDate).thenComparing(MealDto::getId).reversed();
+
+    private EntityManager mockedEntityManager() {
+        EntityManager entityManager = mock(EntityManager.class);
+        when(entityManager.createQuery(anyString(), eq(MealDto.class))).thenAnswer(invocation -> {
+            queries.add(invocation.getArgument(0));
+            return keysetQuery();
+        });
+        return entityManager;
+    }
+
+    // Stands in for the database: applies the keyset predicate, the ordering and the limit
+    @SuppressWarnings("unchecked")
+    private TypedQuery<MealDto> keysetQuery() {
+        TypedQuery<MealDto> query = mock(TypedQuery.class);
+        Map<String, Object> params = new HashMap<>();
+        int[] limit = {Integer.MAX_VALUE};
+        when(query.setParameter(anyString(), any())).thenAnswer(invocation -> {
+            params.put(invocation.getArgument(0), invocation.getArgument(1));
+            return query;
+        });
+        when(query.setMaxResults(anyInt())).thenAnswer(invocation -> {
+            limit[0] = invocation.getArgument(0);
+            return query;
+        });
+        when(query.getResultList()).thenAnswer(invocation -> meals.stream()
+                .filter(m -> !params.containsKey("cursorDate") || isBefore(m,
+                        (LocalDate) params.get("cursorDate"), (Long) params.get("cursorId")))
+                .sorted(NEWEST_FIRST)
+                .limit(limit[0])
+                .toList());
+        return query;
+    }
+
+    private static boolean isBefore(MealDto meal, LocalDate date, Long id) {
+        return meal.getMealDate().isBefore(date) || (meal.getMealDate().equals(date) && meal.getId() < id);
+    }
+}
@@ -0,0 +1,148 @@
+package com.fitnessapp.fitness_api.service;
+
+import com.fitnessapp.fitness_api.dto.FoodDto;
+import com.fitnessapp.fitness_api.entity.FoodCategory;
+import com.fitnessapp.fitness_api.repository.MealRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class QuickAddServiceTest {
+
+    private static final long USER = 1L;
+    private static final LocalDate TODAY = LocalDate.now();
+
+    private MealRepository mealRepository;
+    private FoodService foodService;
+    private FoodCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        mealRepository = mock(MealRepository.class);
+        foodService = mock(FoodService.class);
+        catalog = new FoodCatalog(new SimpleMeterRegistry());
+        List<FoodDto> foods = new ArrayList<>();
+        for (long id = 1; id <= 10; id++) {
+            foods.add(FoodDto.builder().id(id).name("food-" + id)
+                    .calories(100.0).protein(1.0).carbs(1.0).fat(1.0).fiber(1.0)
+                    .category(FoodCategory.OTHER).isActive(true).build());
+        }
+        catalog.replaceAll(foods);
+        when(foodService.catalog()).thenAnswer(invocation -> catalog.snapshot());
+    }
+
+    private QuickAddService service(int countersPerUser) {
+        return new QuickAddService(mealRepository, foodService, countersPerUser, 20, 14, 90, 100);
+    }
+
+    private void history(MealRepository.FoodUse... uses) {
+        when(mealRepository.findFoodUsesSince(eq(USER), any())).thenReturn(List.of(uses));
+    }
+
+    @Test
+    void recentUseOutranksOlderHeavierUse() {
+        // Three uses two months ago weigh less than one use today with a 14-day half-life
+        history(use(1, TODAY.minusDays(60), 3), use(2, TODAY, 1));
+
+        assertThat(ids(service(64).quickAdd(USER, 10))).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void moreUsesOnTheSameDayRankHigher() {
+        history(use(3, TODAY, 1), use(4, TODAY, 5), use(5, TODAY, 2));
+
+        assertThat(ids(service(64).quickAdd(USER, 10))).containsExactly(4L, 5L, 3L);
+        assertThat(ids(service(64).quickAdd(USER, 2))).containsExactly(4L, 5L);
+    }
+
+    @Test
+    void recordedUsesUpdateACachedUser() {
+        history(use(1, TODAY, 2), use(2, TODAY, 1));
+        QuickAddService quickAdd = service(64);
+        assertThat(ids(quickAdd.quickAdd(USER, 10))).containsExactly(1L, 2L);
+
+        quickAdd.recordUse(USER, 2L, TODAY);
+        quickAdd.recordUse(USER, 2L, TODAY);
+
+        assertThat(ids(quickAdd.quickAdd(USER, 10))).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void newFoodTakesOverTheWeakestCounterWhenFull() {
+        history(use(1, TODAY, 5), use(2, TODAY, 1));
+        QuickAddService quickAdd = service(2);
+        quickAdd.quickAdd(USER, 10);
+
+        // Food 3 replaces food 2, the weakest counter, and inherits its score
+        quickAdd.recordUse(USER, 3L, TODAY);
+
+        assertThat(ids(quickAdd.quickAdd(USER, 10))).containsExactly(1L, 3L);
+    }
+
+    @Test
+    void rebasingKeepsTheRanking() {
+        history(use(1, TODAY, 3), use(2, TODAY, 1));
+        QuickAddService quickAdd = service(64);
+        quickAdd.quickAdd(USER, 10);
+
+        // Far enough past the base day to force a rebase of the forward weights
+        LocalDate later = TODAY.plusDays(2_000);
+        quickAdd.recordUse(USER, 2L, later);
+        quickAdd.recordUse(USER, 1L, later.plusDays(1));
+
+        assertThat(ids(quickAdd.quickAdd(USER, 10))).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void skipsFoodsNoLongerInTheCatalog() {
+        history(use(1, TODAY, 3), use(2, TODAY, 2));
+        QuickAddService quickAdd = service(64);
+
+        catalog.remove(1L);
+
+        assertThat(ids(quickAdd.quickAdd(USER, 10))).containsExactly(2L);
+    }
+
+    @Test
+    void usesOfUncachedUsersWaitForTheRebuild() {
+        history(use(1, TODAY, 1));
+        QuickAddService quickAdd = service(64);
+
+        quickAdd.recordUse(USER, 5L, TODAY); // not cached yet: ignored, the rebuild reads the meals
+
+        assertThat(ids(quickAdd.quickAdd(USER, 10))).containsExactly(1L);
+    }
+
+    private static List<Long> ids(List<FoodDto> foods) {
+        return foods.stream().map(FoodDto::getId).toList();
+    }
+
+    private static MealRepository.FoodUse use(long foodId, LocalDate date, long uses) {
+        return new MealRepository.FoodUse() {
+            @Override
+            public Long getFoodId() {
+                return foodId;
+            }
+
+            @Override
+            public LocalDate getMealDate() {
+                return date;
+            }
+
+            @Override
+            public Long getUses() {
+                return uses;
+            }
+        };
+    }
+}
@@ -0,0 +1,179 @@
+package com.fitnessapp.fitness_api.service;
+
+import com.fitnessapp.fitness_api.dto.UserDto;
+import com.fitnessapp.fitness_api.dto.UserProfileDto;
+import com.fitnessapp.fitness_api.entity.ActivityLevel;
+import com.fitnessapp.fitness_api.entity.Food;
+import com.fitnessapp.fitness_api.entity.FoodCategory;
+import com.fitnessapp.fitness_api.entity.Gender;
+import com.fitnessapp.fitness_api.entity.GoalType;
+import com.fitnessapp.fitness_api.entity.Meal;
+import com.fitnessapp.fitness_api.entity.MealType;
+import com.fitnessapp.fitness_api.entity.User;
+import com.fitnessapp.fitness_api.repository.UserRepository;
+import com.fitnessapp.fitness_api.security.UserSnapshotCache;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class UserServicePatchProfileTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private UserSnapshotCache userSnapshotCache;
+    private NutritionRollupService nutritionRollupService;
+    private UserService userService;
+    private Statistics statistics;
+    private Food food;
+
+    @BeforeEach
+    void setUp() {
+        userSnapshotCache = mock(UserSnapshotCache.class);
+        nutritionRollupService = mock(NutritionRollupService.class);
+        userService = new UserService(userRepository, userSnapshotCache, mock(AccountDeletionService.class),
+                nutritionRollupService, entityManager);
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        food = Food.builder()
+                .name("Rice")
+                .calories(130.0).protein(2.7).carbs(28.0).fat(0.3).fiber(0.4)
+                .category(FoodCategory.CARBOHYDRATE)
+                .isActive(true)
+                .build();
+        entityManager.persist(food);
+    }
+
+    @Test
+    void patchIsOneUpdateHoweverManyMealsTheUserHas() {
+        long withoutMeals = patchStatements(userWithMeals("none@example.com", 0));
+        long withMeals = patchStatements(userWithMeals("many@example.com", 200));
+
+        assertThat(withoutMeals).isEqualTo(1);
+        assertThat(withMeals).isEqualTo(1);
+    }
+
+    @Test
+    void neverInitializesMealsOrGoals() {
+        User user = load(userWithMeals("lazy@example.com", 20));
+
+        userService.patchProfile(user, patch(35, 80.0));
+
+        assertThat(Hibernate.isInitialized(user.getMeals())).isFalse();
+        assertThat(Hibernate.isInitialized(user.getDetailedGoals())).isFalse();
+    }
+
+    @Test
+    void writesChangedColumnsAndRecomputesTheTargetOnce() {
+        Long id = userWithMeals("target@example.com", 3);
+        User user = load(id);
+
+        UserProfileDto profile = userService.patchProfile(user, patch(35, 80.0));
+
+        entityManager.clear();
+        User stored = userRepository.findById(id).orElseThrow();
+        // Mifflin-St Jeor for a 35-year-old 80 kg 180 cm man, moderately active, maintaining
+        int expected = (int) Math.round((10 * 80.0 + 6.25 * 180.0 - 5 * 35 + 5) * 1.55);
+        assertThat(stored.getAge()).isEqualTo(35);
+        assertThat(stored.getWeight()).isEqualTo(80.0);
+        assertThat(stored.getHeight()).isEqualTo(180.0);
+        assertThat(stored.getName()).isEqualTo("Before");
+        assertThat(stored.getDailyCalorieTarget()).isEqualTo(expected);
+        assertThat(profile.getDailyCalorieTarget()).isEqualTo(stored.getDailyCalorieTarget());
+        assertThat(stored.getMeals()).hasSize(3);
+        verify(userSnapshotCache).evict(id);
+        // The days are judged against the new target from now on
+        verify(nutritionRollupService).retarget(List.of(id));
+    }
+
+    @Test
+    void nameOnlyPatchKeepsTheRollups() {
+        Long id = userWithMeals("name@example.com", 2);
+        UserDto patch = new UserDto();
+        patch.setName("After");
+
+        userService.patchProfile(load(id), patch);
+
+        verify(nutritionRollupService, never()).retarget(any());
+    }
+
+    @Test
+    void unchangedProfileIssuesNoStatement() {
+        Long id = userWithMeals("same@example.com", 5);
+        User user = load(id);
+        statistics.clear();
+
+        userService.patchProfile(user, patch(30, 75.0));
+        entityManager.flush();
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        verify(userSnapshotCache, never()).evict(id);
+        verify(nutritionRollupService, never()).retarget(any());
+    }
+
+    private long patchStatements(Long userId) {
+        User user = load(userId);
+        statistics.clear();
+        userService.patchProfile(user, patch(41, 90.5));
+        entityManager.flush();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private User load(Long userId) {
+        entityManager.clear();
+        // The same load CurrentUserHolder does for a request
+        return userRepository.findById(userId).orElseThrow();
+    }
+
+    private Long userWithMeals(String email, int meals) {
+        User user = User.builder()
+                .email(email)
+                .password("unused")
+                .name("Before")
+                .age(30).weight(75.0).height(180.0)
+                .gender(Gender.MALE)
+                .activityLevel(ActivityLevel.MODERATE)
+                .goal(GoalType.MAINTAIN)
+                .build();
+        user.setDailyCalorieTarget(userService.calculateDailyCalories(user));
+        entityManager.persist(user);
+        Food managedFood = entityManager.merge(food);
+        for (int i = 0; i < meals; i++) {
+            entityManager.persist(Meal.builder()
+                    .user(user)
+                    .food(managedFood)
+                    .foodName(managedFood.getName())
+                    .mealType(MealType.LUNCH)
+                    .quantity(100)
+                    .calories(130)
+                    .mealDate(LocalDate.of(2026, 1, 1).plusDays(i % 30))
+                    .build());
+        }
+        entityManager.flush();
+        return user.getId();
+    }
+
+    private static UserDto patch(int age, double weight) {
+        UserDto patch = new UserDto();
+        patch.setAge(age);
+        patch.setWeight(weight);
+        return patch;
+    }
+}
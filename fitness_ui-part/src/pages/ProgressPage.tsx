@@ -45,31 +45,13 @@ const ProgressPage: React.FC = () => {
       setDailyNutrition(nutrition);
       setGoalsList(goals);
       
-      // Load weekly nutrition data
-      const weeklyData = [];
-      for (let i = 6; i >= 0; i--) {
-        const date = new Date();
-        date.setDate(date.getDate() - i);
-        const dateStr = date.toISOString().split('T')[0];
-        
-        try {
-          const dayNutrition = await MealService.getDailyNutrition(dateStr);
-          weeklyData.push(dayNutrition);
-        } catch (error) {
-          // If no data for this day, create empty entry
-          weeklyData.push({
-            date: dateStr,
-            totalCalories: 0,
-            totalProtein: 0,
-            totalCarbs: 0,
-            totalFat: 0,
-            totalFiber: 0,
-            targetCalories: goals?.dailyCalorieTarget || 2000,
-            remainingCalories: goals?.dailyCalorieTarget || 2000,
-            calorieProgress: 0
-          });
-        }
-      }
+      // Load weekly nutrition data in one request
+      const start = new Date();
+      start.setDate(start.getDate() - 6);
+      const weeklyData = await MealService.getNutritionRange(
+        start.toISOString().split('T')[0],
+        new Date().toISOString().split('T')[0]
+      );
       
       setWeeklyNutrition(weeklyData);
     } catch (error) {
@@ -34,6 +34,7 @@ export interface DailyNutrition {
   targetCalories: number;
   remainingCalories: number;
   calorieProgress: number; // percentage
+  mealCount?: number;
 }
 
 export const MealService = {
@@ -63,6 +64,12 @@ export const MealService = {
     return data;
   },
 
+  // Get one entry per day for an inclusive date range (empty days included)
+  async getNutritionRange(from: string, to: string): Promise<DailyNutrition[]> {
+    const { data } = await api.get(`/api/meals/nutrition/range?from=${from}&to=${to}`);
+    return data;
+  },
+
   // Update a meal
   async updateMeal(mealId: number, mealData: MealRequest): Promise<string> {
     const { data } = await api.put(`/api/meals/${mealId}`, mealData);